@@ -2,7 +2,10 @@ package xyz.mizhoux.sugar;
 
 import xyz.mizhoux.sugar.function.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.*;
 
 /**
@@ -221,4 +224,179 @@ public interface Attempt {
         };
     }
 
+    /**
+     * 包装受检的 Supplier，并在指定的时间内记忆其结果。
+     * 同一时刻只有一个线程执行加载，值临近过期时在后台异步刷新，加载失败不缓存
+     *
+     * @param supplier 受检的 Supplier
+     * @param ttl      结果的存活时间
+     * @param <R>
+     * @return 带记忆的非受检 Supplier
+     */
+    static <R> Supplier<R> memoize(CheckedSupplier<R> supplier, Duration ttl) {
+        return memoize(supplier, ttl, Duration.ZERO, e -> { throw new RuntimeException(e); });
+    }
+
+    /**
+     * 包装受检的 Supplier，并在指定的时间内记忆其结果，同时自定义异常处理。
+     * 加载通常是阻塞的 I/O，因此后台刷新在 JDK 21 及以上运行在虚拟线程上，否则运行在执行阻塞调用的守护线程池中，
+     * 不会占用 ForkJoinPool.commonPool()；刷新被拒绝时保留旧值，等待下一次读取再刷新
+     *
+     * @param supplier   受检的 Supplier
+     * @param ttl        结果的存活时间
+     * @param failureTtl 加载失败的缓存时间，在此期间不会再次调用 supplier
+     * @param handler    自定义异常处理
+     * @param <R>
+     * @return 带记忆的非受检 Supplier
+     */
+    static <R> Supplier<R> memoize(CheckedSupplier<R> supplier, Duration ttl, Duration failureTtl,
+                                   Function<Throwable, R> handler) {
+        return memoize(supplier, ttl, failureTtl, handler, Platform.blockingExecutor());
+    }
+
+    /**
+     * 包装受检的 Supplier，并在指定的时间内记忆其结果，同时自定义异常处理和后台刷新使用的 Executor
+     *
+     * @param supplier   受检的 Supplier
+     * @param ttl        结果的存活时间
+     * @param failureTtl 加载失败的缓存时间，在此期间不会再次调用 supplier
+     * @param handler    自定义异常处理
+     * @param executor   后台刷新使用的 Executor
+     * @param <R>
+     * @return 带记忆的非受检 Supplier
+     */
+    static <R> Supplier<R> memoize(CheckedSupplier<R> supplier, Duration ttl, Duration failureTtl,
+                                   Function<Throwable, R> handler, Executor executor) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(ttl);
+        Objects.requireNonNull(failureTtl);
+        Objects.requireNonNull(handler);
+        Objects.requireNonNull(executor);
+
+        return new MemoizingSupplier<>(supplier, ttl.toNanos(), failureTtl.toNanos(), handler, executor);
+    }
+
+    /**
+     * 为受检的 Supplier 设定时限：超时时抛出 TimeoutException 并中断执行调用的线程。
+     * 中断只能取消响应中断的操作，不响应中断的调用（例如阻塞在普通的 Socket 读取上）会在后台继续运行直到结束。
+     * 调用在 JDK 21 及以上运行在虚拟线程上，否则运行在守护线程池中；超时后仍在执行的调用过多时
+     * 抛出 RejectedExecutionException，正常结束的调用不受限制。时限比外层更短的嵌套调用会再占用一个线程
+     *
+     * @param supplier 受检的 Supplier
+     * @param timeout  时限，与外层的截止时间取较早者
+     * @param <R>
+     * @return 带时限的受检 Supplier，可以交给 {@link #supply(CheckedSupplier, Function)} 处理超时
+     */
+    static <R> CheckedSupplier<R> withTimeout(CheckedSupplier<R> supplier, Duration timeout) {
+        return withTimeout(supplier, timeout, Platform.blockingExecutor());
+    }
+
+    /**
+     * 为受检的 Supplier 设定时限，并自定义执行调用的 Executor
+     *
+     * @param supplier 受检的 Supplier
+     * @param timeout  时限，与外层的截止时间取较早者
+     * @param executor 执行调用的 Executor
+     * @param <R>
+     * @return 带时限的受检 Supplier
+     */
+    static <R> CheckedSupplier<R> withTimeout(CheckedSupplier<R> supplier, Duration timeout, Executor executor) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(timeout);
+        Objects.requireNonNull(executor);
+
+        return () -> Deadline.call(supplier, Deadline.after(timeout), executor);
+    }
+
+    /**
+     * 为受检的 Supplier 设定截止时刻：超时时抛出 TimeoutException 并中断执行调用的线程
+     *
+     * @param supplier 受检的 Supplier
+     * @param deadline 截止时刻，与外层的截止时间取较早者
+     * @param <R>
+     * @return 带截止时刻的受检 Supplier
+     */
+    static <R> CheckedSupplier<R> withDeadline(CheckedSupplier<R> supplier, Instant deadline) {
+        return withDeadline(supplier, deadline, Platform.blockingExecutor());
+    }
+
+    /**
+     * 为受检的 Supplier 设定截止时刻，并自定义执行调用的 Executor
+     *
+     * @param supplier 受检的 Supplier
+     * @param deadline 截止时刻，与外层的截止时间取较早者
+     * @param executor 执行调用的 Executor
+     * @param <R>
+     * @return 带截止时刻的受检 Supplier
+     */
+    static <R> CheckedSupplier<R> withDeadline(CheckedSupplier<R> supplier, Instant deadline, Executor executor) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(deadline);
+        Objects.requireNonNull(executor);
+
+        return () -> Deadline.call(supplier, Deadline.at(deadline), executor);
+    }
+
+    /**
+     * 为受检的 Function 设定时限：超时时抛出 TimeoutException 并中断执行调用的线程
+     *
+     * @param function 受检的 Function
+     * @param timeout  时限，与外层的截止时间取较早者
+     * @param <T>
+     * @param <R>
+     * @return 带时限的受检 Function，可以交给 {@link #apply(CheckedFunction, Function)} 处理超时
+     */
+    static <T, R> CheckedFunction<T, R> withTimeout(CheckedFunction<T, R> function, Duration timeout) {
+        return withTimeout(function, timeout, Platform.blockingExecutor());
+    }
+
+    /**
+     * 为受检的 Function 设定时限，并自定义执行调用的 Executor
+     *
+     * @param function 受检的 Function
+     * @param timeout  时限，与外层的截止时间取较早者
+     * @param executor 执行调用的 Executor
+     * @param <T>
+     * @param <R>
+     * @return 带时限的受检 Function
+     */
+    static <T, R> CheckedFunction<T, R> withTimeout(CheckedFunction<T, R> function, Duration timeout, Executor executor) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(timeout);
+        Objects.requireNonNull(executor);
+
+        return t -> Deadline.call(() -> function.apply(t), Deadline.after(timeout), executor);
+    }
+
+    /**
+     * 为受检的 Function 设定截止时刻：超时时抛出 TimeoutException 并中断执行调用的线程
+     *
+     * @param function 受检的 Function
+     * @param deadline 截止时刻，与外层的截止时间取较早者
+     * @param <T>
+     * @param <R>
+     * @return 带截止时刻的受检 Function
+     */
+    static <T, R> CheckedFunction<T, R> withDeadline(CheckedFunction<T, R> function, Instant deadline) {
+        return withDeadline(function, deadline, Platform.blockingExecutor());
+    }
+
+    /**
+     * 为受检的 Function 设定截止时刻，并自定义执行调用的 Executor
+     *
+     * @param function 受检的 Function
+     * @param deadline 截止时刻，与外层的截止时间取较早者
+     * @param executor 执行调用的 Executor
+     * @param <T>
+     * @param <R>
+     * @return 带截止时刻的受检 Function
+     */
+    static <T, R> CheckedFunction<T, R> withDeadline(CheckedFunction<T, R> function, Instant deadline, Executor executor) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(deadline);
+        Objects.requireNonNull(executor);
+
+        return t -> Deadline.call(() -> function.apply(t), Deadline.at(deadline), executor);
+    }
+
 }
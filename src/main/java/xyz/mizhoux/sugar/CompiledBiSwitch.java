@@ -0,0 +1,200 @@
+package xyz.mizhoux.sugar;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * 编译后的双输入 Switch，相等条件使用由两个输入组合计算哈希值的复合 key 索引，求值时不创建元组对象
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class CompiledBiSwitch<A, B, O> implements BiFunction<A, B, O> {
+
+    private final KeyIndex[] indexes;
+
+    private final Object[] conditions;
+
+    private final Object[] actions;
+
+    /**
+     * 不满足任一条件时的求值动作，为 null 时输出 null
+     */
+    private final BiFunction<? super A, ? super B, ? extends O> otherwise;
+
+    private CompiledBiSwitch(SwitchCases.Compiled compiled, BiFunction<? super A, ? super B, ? extends O> otherwise) {
+        this.indexes = compiled.indexes;
+        this.conditions = compiled.conditions;
+        this.actions = compiled.actions;
+        this.otherwise = otherwise;
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param a 第一个输入值
+     * @param b 第二个输入值
+     * @return 满足条件时所求的值；不满足任一条件时，返回默认的输出值
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public O apply(A a, B b) {
+        for (int i = 0; i < indexes.length; i++) {
+            Object action;
+
+            KeyIndex index = indexes[i];
+            if (index != null) {
+                action = index.get(a, b);
+            } else {
+                action = ((BiPredicate<? super A, ? super B>) conditions[i]).test(a, b) ? actions[i] : null;
+            }
+
+            if (action != null) {
+                return ((BiFunction<? super A, ? super B, ? extends O>) action).apply(a, b);
+            }
+        }
+
+        return otherwise == null ? null : otherwise.apply(a, b);
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param a 第一个输入值
+     * @param b 第二个输入值
+     * @return 使用 Optional 包装的输出值
+     */
+    public Optional<O> obtain(A a, B b) {
+        return Optional.ofNullable(apply(a, b));
+    }
+
+    /**
+     * 用于定义 CompiledBiSwitch 的构建器
+     *
+     * @param <A> 第一个输入值的类型
+     * @param <B> 第二个输入值的类型
+     * @param <O> 输出值的类型
+     */
+    public static final class Builder<A, B, O> {
+
+        private final SwitchCases cases = new SwitchCases(2);
+
+        Builder() {
+        }
+
+        /**
+         * 设定当前构建器的输出值的类型
+         *
+         * @param type 输出值的类型
+         * @param <R>  指定的输出值类型
+         * @return 当前构建器
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<A, B, R> out(Class<? extends R> type) {
+            return (Builder<A, B, R>) this;
+        }
+
+        /**
+         * 判断输入是否和给定的目标分别相等
+         *
+         * @param x 第一个输入的目标
+         * @param y 第二个输入的目标
+         * @return 当前构建器
+         */
+        public Builder<A, B, O> is(A x, B y) {
+            cases.is(x, y);
+            return this;
+        }
+
+        /**
+         * 设定输入值需要满足的条件
+         *
+         * @param condition 输入值需要满足的条件
+         * @return 当前构建器
+         */
+        public Builder<A, B, O> when(BiPredicate<? super A, ? super B> condition) {
+            cases.when(condition);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 当前构建器
+         */
+        public Builder<A, B, O> thenGet(O value) {
+            cases.then((BiFunction<A, B, O>) (a, b) -> value);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 BiFunction 进行求值，输入值会作为 BiFunction 的输入
+         *
+         * @param mapper 指定的 BiFunction
+         * @return 当前构建器
+         */
+        public Builder<A, B, O> thenApply(BiFunction<? super A, ? super B, ? extends O> mapper) {
+            cases.then(mapper);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 当前构建器
+         */
+        public Builder<A, B, O> thenSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            cases.then((BiFunction<A, B, O>) (a, b) -> supplier.get());
+            return this;
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 编译后的 Switch
+         */
+        public CompiledBiSwitch<A, B, O> elseGet(O value) {
+            return new CompiledBiSwitch<>(cases.compile(), (a, b) -> value);
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 BiFunction 进行求值
+         *
+         * @param mapper 指定的 BiFunction
+         * @return 编译后的 Switch
+         */
+        public CompiledBiSwitch<A, B, O> elseApply(BiFunction<? super A, ? super B, ? extends O> mapper) {
+            return new CompiledBiSwitch<>(cases.compile(), Objects.requireNonNull(mapper));
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 编译后的 Switch
+         */
+        public CompiledBiSwitch<A, B, O> elseSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return new CompiledBiSwitch<>(cases.compile(), (a, b) -> supplier.get());
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出 null
+         *
+         * @return 编译后的 Switch
+         */
+        public CompiledBiSwitch<A, B, O> build() {
+            return new CompiledBiSwitch<>(cases.compile(), null);
+        }
+    }
+
+}
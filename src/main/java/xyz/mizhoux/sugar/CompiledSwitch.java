@@ -0,0 +1,195 @@
+package xyz.mizhoux.sugar;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 编译后的 Switch：分支只定义一次，之后可以在任意多个输入上重复求值，并且可以被多个线程共享
+ * <p>
+ * 分支被编译为决策树：is/isIn 以及 {@link Condition} 中的字段条件使用哈希节点或区间节点判断，
+ * 每个字段在一次求值中最多被提取一次；普通的 Predicate 按定义的顺序逐个判断。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class CompiledSwitch<I, O> implements Function<I, O> {
+
+    private final DecisionTree tree;
+
+    /**
+     * 不满足任一条件时的求值动作，为 null 时输出 null
+     */
+    private final Function<? super I, ? extends O> otherwise;
+
+    private CompiledSwitch(DecisionTree tree, Function<? super I, ? extends O> otherwise) {
+        this.tree = tree;
+        this.otherwise = otherwise;
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param input 输入值
+     * @return 满足条件时所求的值；不满足任一条件时，返回默认的输出值
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public O apply(I input) {
+        Function<? super I, ? extends O> action = (Function<? super I, ? extends O>) tree.evaluate(input);
+        if (action != null) {
+            return action.apply(input);
+        }
+
+        return otherwise == null ? null : otherwise.apply(input);
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param input 输入值
+     * @return 使用 Optional 包装的输出值
+     */
+    public Optional<O> obtain(I input) {
+        return Optional.ofNullable(apply(input));
+    }
+
+    /**
+     * 用于定义 CompiledSwitch 的构建器
+     *
+     * @param <I> 输入值的类型
+     * @param <O> 输出值的类型
+     */
+    public static final class Builder<I, O> {
+
+        private final SwitchCases cases = new SwitchCases(1);
+
+        Builder() {
+        }
+
+        /**
+         * 设定当前构建器的输出值的类型
+         *
+         * @param type 输出值的类型
+         * @param <R>  指定的输出值类型
+         * @return 当前构建器
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> out(Class<? extends R> type) {
+            return (Builder<I, R>) this;
+        }
+
+        /**
+         * 判断输入是否和给定的目标相等
+         *
+         * @param target 给定的目标
+         * @return 当前构建器
+         */
+        public Builder<I, O> is(I target) {
+            cases.is(target);
+            return this;
+        }
+
+        /**
+         * 判断输入是否存在给定的一群值中
+         *
+         * @param values 给定的一群值
+         * @return 当前构建器
+         */
+        @SafeVarargs
+        public final Builder<I, O> isIn(I... values) {
+            cases.isIn(values);
+            return this;
+        }
+
+        /**
+         * 设定输入值需要满足的条件，使用 {@link Condition} 时可以参与决策树的编译
+         *
+         * @param condition 输入值需要满足的条件
+         * @return 当前构建器
+         */
+        public Builder<I, O> when(Predicate<? super I> condition) {
+            cases.when(condition);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 当前构建器
+         */
+        public Builder<I, O> thenGet(O value) {
+            cases.then((Function<I, O>) input -> value);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 Function 进行求值，输入值会作为 Function 的输入
+         *
+         * @param mapper 指定的 Function
+         * @return 当前构建器
+         */
+        public Builder<I, O> thenApply(Function<? super I, ? extends O> mapper) {
+            cases.then(mapper);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 当前构建器
+         */
+        public Builder<I, O> thenSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            cases.then((Function<I, O>) input -> supplier.get());
+            return this;
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 编译后的 Switch
+         */
+        public CompiledSwitch<I, O> elseGet(O value) {
+            return new CompiledSwitch<>(cases.compileTree(), input -> value);
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 Function 进行求值
+         *
+         * @param mapper 指定的 Function
+         * @return 编译后的 Switch
+         */
+        public CompiledSwitch<I, O> elseApply(Function<? super I, ? extends O> mapper) {
+            return new CompiledSwitch<>(cases.compileTree(), Objects.requireNonNull(mapper));
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 编译后的 Switch
+         */
+        public CompiledSwitch<I, O> elseSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return new CompiledSwitch<>(cases.compileTree(), input -> supplier.get());
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出 null
+         *
+         * @return 编译后的 Switch
+         */
+        public CompiledSwitch<I, O> build() {
+            return new CompiledSwitch<>(cases.compileTree(), null);
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package xyz.mizhoux.sugar;
+
+import xyz.mizhoux.sugar.function.TriFunction;
+import xyz.mizhoux.sugar.function.TriPredicate;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 编译后的三输入 Switch，相等条件使用由三个输入组合计算哈希值的复合 key 索引，求值时不创建元组对象
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class CompiledTriSwitch<A, B, C, O> implements TriFunction<A, B, C, O> {
+
+    private final KeyIndex[] indexes;
+
+    private final Object[] conditions;
+
+    private final Object[] actions;
+
+    /**
+     * 不满足任一条件时的求值动作，为 null 时输出 null
+     */
+    private final TriFunction<? super A, ? super B, ? super C, ? extends O> otherwise;
+
+    private CompiledTriSwitch(SwitchCases.Compiled compiled, TriFunction<? super A, ? super B, ? super C, ? extends O> otherwise) {
+        this.indexes = compiled.indexes;
+        this.conditions = compiled.conditions;
+        this.actions = compiled.actions;
+        this.otherwise = otherwise;
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param a 第一个输入值
+     * @param b 第二个输入值
+     * @param c 第三个输入值
+     * @return 满足条件时所求的值；不满足任一条件时，返回默认的输出值
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public O apply(A a, B b, C c) {
+        for (int i = 0; i < indexes.length; i++) {
+            Object action;
+
+            KeyIndex index = indexes[i];
+            if (index != null) {
+                action = index.get(a, b, c);
+            } else {
+                action = ((TriPredicate<? super A, ? super B, ? super C>) conditions[i]).test(a, b, c) ? actions[i] : null;
+            }
+
+            if (action != null) {
+                return ((TriFunction<? super A, ? super B, ? super C, ? extends O>) action).apply(a, b, c);
+            }
+        }
+
+        return otherwise == null ? null : otherwise.apply(a, b, c);
+    }
+
+    /**
+     * 对输入值进行求值
+     *
+     * @param a 第一个输入值
+     * @param b 第二个输入值
+     * @param c 第三个输入值
+     * @return 使用 Optional 包装的输出值
+     */
+    public Optional<O> obtain(A a, B b, C c) {
+        return Optional.ofNullable(apply(a, b, c));
+    }
+
+    /**
+     * 用于定义 CompiledTriSwitch 的构建器
+     *
+     * @param <A> 第一个输入值的类型
+     * @param <B> 第二个输入值的类型
+     * @param <C> 第三个输入值的类型
+     * @param <O> 输出值的类型
+     */
+    public static final class Builder<A, B, C, O> {
+
+        private final SwitchCases cases = new SwitchCases(3);
+
+        Builder() {
+        }
+
+        /**
+         * 设定当前构建器的输出值的类型
+         *
+         * @param type 输出值的类型
+         * @param <R>  指定的输出值类型
+         * @return 当前构建器
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<A, B, C, R> out(Class<? extends R> type) {
+            return (Builder<A, B, C, R>) this;
+        }
+
+        /**
+         * 判断输入是否和给定的目标分别相等
+         *
+         * @param x 第一个输入的目标
+         * @param y 第二个输入的目标
+         * @param z 第三个输入的目标
+         * @return 当前构建器
+         */
+        public Builder<A, B, C, O> is(A x, B y, C z) {
+            cases.is(x, y, z);
+            return this;
+        }
+
+        /**
+         * 设定输入值需要满足的条件
+         *
+         * @param condition 输入值需要满足的条件
+         * @return 当前构建器
+         */
+        public Builder<A, B, C, O> when(TriPredicate<? super A, ? super B, ? super C> condition) {
+            cases.when(condition);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 当前构建器
+         */
+        public Builder<A, B, C, O> thenGet(O value) {
+            cases.then((TriFunction<A, B, C, O>) (a, b, c) -> value);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 TriFunction 进行求值，输入值会作为 TriFunction 的输入
+         *
+         * @param mapper 指定的 TriFunction
+         * @return 当前构建器
+         */
+        public Builder<A, B, C, O> thenApply(TriFunction<? super A, ? super B, ? super C, ? extends O> mapper) {
+            cases.then(mapper);
+            return this;
+        }
+
+        /**
+         * 满足当前条件时，使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 当前构建器
+         */
+        public Builder<A, B, C, O> thenSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            cases.then((TriFunction<A, B, C, O>) (a, b, c) -> supplier.get());
+            return this;
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出指定的值
+         *
+         * @param value 指定的输出值
+         * @return 编译后的 Switch
+         */
+        public CompiledTriSwitch<A, B, C, O> elseGet(O value) {
+            return new CompiledTriSwitch<>(cases.compile(), (a, b, c) -> value);
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 TriFunction 进行求值
+         *
+         * @param mapper 指定的 TriFunction
+         * @return 编译后的 Switch
+         */
+        public CompiledTriSwitch<A, B, C, O> elseApply(TriFunction<? super A, ? super B, ? super C, ? extends O> mapper) {
+            return new CompiledTriSwitch<>(cases.compile(), Objects.requireNonNull(mapper));
+        }
+
+        /**
+         * 完成定义，不满足任一条件时使用 Supplier 进行求值
+         *
+         * @param supplier 指定的 Supplier
+         * @return 编译后的 Switch
+         */
+        public CompiledTriSwitch<A, B, C, O> elseSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return new CompiledTriSwitch<>(cases.compile(), (a, b, c) -> supplier.get());
+        }
+
+        /**
+         * 完成定义，不满足任一条件时输出 null
+         *
+         * @return 编译后的 Switch
+         */
+        public CompiledTriSwitch<A, B, C, O> build() {
+            return new CompiledTriSwitch<>(cases.compile(), null);
+        }
+    }
+
+}
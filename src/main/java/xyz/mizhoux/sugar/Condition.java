@@ -0,0 +1,625 @@
+package xyz.mizhoux.sugar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 可组合的条件
+ * <p>
+ * 条件由字段上的原子条件（{@link Field#eq}、{@link Field#in}、{@link Field#between}）和 and/or/not 组合而成，
+ * 既可以像普通的 Predicate 一样直接使用，也可以交给 {@link CompiledSwitch} 编译为决策树：
+ * 决策树的每一层针对一个字段建立哈希节点或区间节点，通常每个字段的提取函数在一次求值中最多执行一次。
+ * 编译后的求值与逐个判断条件的结果一致：位于 {@link #of} 或 {@link #instanceOf} 之后的字段，
+ * 只有在前面的判断使 and/or 无法短路时才会被提取。
+ * <p>
+ * 字段以 {@link Field} 实例区分，多个条件需要共享同一个 Field 实例才能被识别为同一个字段。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public abstract class Condition<T> implements Predicate<T> {
+
+    /**
+     * 恒为真的条件
+     */
+    static final Condition<Object> TRUE = new Constant(true);
+
+    /**
+     * 恒为假的条件
+     */
+    static final Condition<Object> FALSE = new Constant(false);
+
+    Condition() {
+    }
+
+    /**
+     * 定义一个字段
+     *
+     * @param extractor 从输入值中提取字段的函数
+     * @param <T>       输入类型
+     * @param <F>       字段类型
+     * @return 字段
+     */
+    public static <T, F> Field<T, F> field(Function<? super T, ? extends F> extractor) {
+        return new Field<>(Objects.requireNonNull(extractor));
+    }
+
+    /**
+     * 将普通的 Predicate 包装为条件，编译时被视为不透明的判断
+     *
+     * @param predicate 指定的 Predicate
+     * @param <T>       输入类型
+     * @return 条件
+     */
+    public static <T> Condition<T> of(Predicate<? super T> predicate) {
+        return new Opaque<>(Objects.requireNonNull(predicate));
+    }
+
+    /**
+     * 输入值是给定类型的实例，编译时连续的类型条件会合并为一次类型分派
+     *
+     * @param type 给定的类型
+     * @param <T>  输入类型
+     * @return 条件
+     */
+    public static <T> Condition<T> instanceOf(Class<?> type) {
+        return new InstanceOf<>(Objects.requireNonNull(type));
+    }
+
+    /**
+     * 对条件取反
+     *
+     * @param condition 指定的条件
+     * @param <T>       输入类型
+     * @return 取反后的条件
+     */
+    public static <T> Condition<T> not(Condition<T> condition) {
+        return new Not<>(Objects.requireNonNull(condition));
+    }
+
+    /**
+     * 与另一个条件同时满足
+     *
+     * @param other 另一个条件
+     * @return 组合后的条件
+     */
+    public Condition<T> and(Condition<T> other) {
+        return new And<>(Arrays.asList(this, Objects.requireNonNull(other)));
+    }
+
+    /**
+     * 与另一个条件满足其一
+     *
+     * @param other 另一个条件
+     * @return 组合后的条件
+     */
+    public Condition<T> or(Condition<T> other) {
+        return new Or<>(Arrays.asList(this, Objects.requireNonNull(other)));
+    }
+
+    /**
+     * 在指定字段的取值落在给定区域时化简条件，未发生变化时返回当前实例
+     *
+     * @param field  指定的字段
+     * @param region 字段的取值区域
+     * @return 化简后的条件
+     */
+    abstract Condition<T> resolve(Field<?, ?> field, Region region);
+
+    /**
+     * 使用已提取的字段值判断输入值是否满足条件，尚未提取的字段在用到时提取并记录
+     *
+     * @param input     输入值
+     * @param extracted 本次求值中已提取的字段值
+     * @return 是否满足条件
+     */
+    abstract boolean test(T input, Extracted extracted);
+
+    /**
+     * 收集指定字段上的原子条件
+     */
+    abstract void collect(Field<?, ?> field, Consumer<Atom<?>> sink);
+
+    /**
+     * 按求值顺序最先判断的字段：and/or 会短路，后面的字段可能只在前面的判断成立（或不成立）时才被提取，
+     * 例如 {@code instanceOf(Dog.class).and(breed.eq("lab"))} 中的 breed，因此只有最左侧的原子条件是无条件求值的
+     *
+     * @return 最左侧的原子条件的字段，最左侧为不透明判断或类型判断时返回 null
+     */
+    abstract Field<?, ?> leadingField();
+
+    @SuppressWarnings("unchecked")
+    static <T> Condition<T> constant(boolean value) {
+        return (Condition<T>) (value ? TRUE : FALSE);
+    }
+
+    @SuppressWarnings("unchecked")
+    static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * 字段：从输入值中提取的一部分
+     *
+     * @param <T> 输入类型
+     * @param <F> 字段类型
+     */
+    public static final class Field<T, F> {
+
+        private final Function<? super T, ? extends F> extractor;
+
+        Field(Function<? super T, ? extends F> extractor) {
+            this.extractor = extractor;
+        }
+
+        /**
+         * 字段与给定的值相等
+         *
+         * @param value 给定的值
+         * @return 条件
+         */
+        public Condition<T> eq(F value) {
+            return new Atom<>(this, Atom.EQ, value, null, null);
+        }
+
+        /**
+         * 字段存在于给定的一群值中
+         *
+         * @param values 给定的一群值
+         * @return 条件
+         */
+        @SafeVarargs
+        public final Condition<T> in(F... values) {
+            Objects.requireNonNull(values);
+
+            return new Atom<>(this, Atom.IN, null, Collections.unmodifiableSet(new HashSet<>(Arrays.asList(values))), null);
+        }
+
+        /**
+         * 字段位于闭区间 [low, high] 中，字段的类型需要实现 Comparable，为 null 时不满足条件
+         *
+         * @param low  区间下界
+         * @param high 区间上界
+         * @return 条件
+         */
+        public Condition<T> between(F low, F high) {
+            Objects.requireNonNull(low);
+            Objects.requireNonNull(high);
+            if (compare(low, high) > 0) {
+                throw new IllegalArgumentException("low > high: " + low + " > " + high);
+            }
+
+            return new Atom<>(this, Atom.BETWEEN, low, null, high);
+        }
+
+        F extract(T input) {
+            return extractor.apply(input);
+        }
+    }
+
+    /**
+     * 字段在决策树某个分支上的取值区域
+     */
+    static final class Region {
+
+        /**
+         * 取值为 value
+         */
+        static final int POINT = 0;
+
+        /**
+         * 取值位于 (lower, upper) 之间，并且不等于任何已知的点；lower/upper 为 null 表示无界
+         */
+        static final int GAP = 1;
+
+        /**
+         * 取值不等于任何已知的点，只用于不存在区间条件的字段
+         */
+        static final int OTHER = 2;
+
+        /**
+         * 取值与 value 的 compareTo 结果为 0，但不一定与之 equals，只能化简区间条件
+         */
+        static final int BOUND = 3;
+
+        static final Region ANY_OTHER = new Region(OTHER, null, null, null);
+
+        final int kind;
+
+        final Object value;
+
+        final Object lower;
+
+        final Object upper;
+
+        private Region(int kind, Object value, Object lower, Object upper) {
+            this.kind = kind;
+            this.value = value;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        static Region point(Object value) {
+            return new Region(POINT, value, null, null);
+        }
+
+        static Region gap(Object lower, Object upper) {
+            return new Region(GAP, null, lower, upper);
+        }
+
+        static Region bound(Object value) {
+            return new Region(BOUND, value, null, null);
+        }
+    }
+
+    /**
+     * 一次求值中已提取的字段值，字段通常很少，因此按引用线性查找
+     */
+    static final class Extracted {
+
+        private Field<?, ?>[] fields;
+
+        private Object[] values;
+
+        private int size;
+
+        <T> Object get(Field<T, ?> field, T input) {
+            for (int i = 0; i < size; i++) {
+                if (fields[i] == field) {
+                    return values[i];
+                }
+            }
+
+            Object value = field.extract(input);
+            if (fields == null) {
+                // 只包含不透明判断时无需分配
+                fields = new Field<?, ?>[4];
+                values = new Object[4];
+            } else if (size == fields.length) {
+                fields = Arrays.copyOf(fields, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            fields[size] = field;
+            values[size++] = value;
+            return value;
+        }
+    }
+
+    /**
+     * 字段上的原子条件
+     */
+    static final class Atom<T> extends Condition<T> {
+
+        static final int EQ = 0;
+
+        static final int IN = 1;
+
+        static final int BETWEEN = 2;
+
+        final Field<T, ?> field;
+
+        final int kind;
+
+        /**
+         * EQ 时为比较的值，BETWEEN 时为下界
+         */
+        final Object value;
+
+        final Set<?> values;
+
+        final Object high;
+
+        Atom(Field<T, ?> field, int kind, Object value, Set<?> values, Object high) {
+            this.field = field;
+            this.kind = kind;
+            this.value = value;
+            this.values = values;
+            this.high = high;
+        }
+
+        @Override
+        public boolean test(T input) {
+            return matches(field.extract(input));
+        }
+
+        @Override
+        boolean test(T input, Extracted extracted) {
+            return matches(extracted.get(field, input));
+        }
+
+        boolean matches(Object v) {
+            switch (kind) {
+                case EQ:
+                    return Objects.equals(v, value);
+                case IN:
+                    return values.contains(v);
+                default:
+                    return v != null && compare(value, v) <= 0 && compare(v, high) <= 0;
+            }
+        }
+
+        @Override
+        Condition<T> resolve(Field<?, ?> field, Region region) {
+            if (this.field != field) { return this; }
+
+            switch (region.kind) {
+                case Region.POINT:
+                    return constant(matches(region.value));
+                case Region.GAP:
+                    // 区间的上下界都是已知的点，因此空隙要么整体落在区间内，要么整体落在区间外
+                    return constant(kind == BETWEEN && region.lower != null && region.upper != null
+                                    && compare(value, region.lower) <= 0 && compare(region.upper, high) <= 0);
+                case Region.BOUND:
+                    // 相等条件使用 equals 判断，需要在实际的取值上重新判断
+                    return kind == BETWEEN ? constant(matches(region.value)) : this;
+                default:
+                    if (kind == BETWEEN) {
+                        throw new IllegalStateException("Range condition cannot be resolved without bounds");
+                    }
+                    return constant(false);
+            }
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+            if (this.field == field) {
+                sink.accept(this);
+            }
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return field;
+        }
+    }
+
+    /**
+     * 不透明的判断
+     */
+    static final class Opaque<T> extends Condition<T> {
+
+        private final Predicate<? super T> predicate;
+
+        Opaque(Predicate<? super T> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(T input) {
+            return predicate.test(input);
+        }
+
+        @Override
+        boolean test(T input, Extracted extracted) {
+            return predicate.test(input);
+        }
+
+        @Override
+        Condition<T> resolve(Field<?, ?> field, Region region) {
+            return this;
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return null;
+        }
+    }
+
+    /**
+     * 类型判断
+     */
+    static final class InstanceOf<T> extends Condition<T> {
+
+        final Class<?> type;
+
+        InstanceOf(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean test(T input) {
+            return type.isInstance(input);
+        }
+
+        @Override
+        boolean test(T input, Extracted extracted) {
+            return type.isInstance(input);
+        }
+
+        @Override
+        Condition<T> resolve(Field<?, ?> field, Region region) {
+            return this;
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return null;
+        }
+    }
+
+    private static final class Constant extends Condition<Object> {
+
+        private final boolean value;
+
+        Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Object input) {
+            return value;
+        }
+
+        @Override
+        boolean test(Object input, Extracted extracted) {
+            return value;
+        }
+
+        @Override
+        Condition<Object> resolve(Field<?, ?> field, Region region) {
+            return this;
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return null;
+        }
+    }
+
+    private static final class Not<T> extends Condition<T> {
+
+        private final Condition<T> condition;
+
+        Not(Condition<T> condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(T input) {
+            return !condition.test(input);
+        }
+
+        @Override
+        boolean test(T input, Extracted extracted) {
+            return !condition.test(input, extracted);
+        }
+
+        @Override
+        Condition<T> resolve(Field<?, ?> field, Region region) {
+            Condition<T> resolved = condition.resolve(field, region);
+
+            if (resolved == condition) { return this; }
+            if (resolved == TRUE) { return constant(false); }
+            if (resolved == FALSE) { return constant(true); }
+
+            return new Not<>(resolved);
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+            condition.collect(field, sink);
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return condition.leadingField();
+        }
+    }
+
+    /**
+     * And 与 Or 的公共部分：短路值为 {@code shortCircuit} 的子条件决定整体结果
+     */
+    private abstract static class Junction<T> extends Condition<T> {
+
+        final List<Condition<T>> conditions;
+
+        private final boolean shortCircuit;
+
+        Junction(List<Condition<T>> conditions, boolean shortCircuit) {
+            this.conditions = conditions;
+            this.shortCircuit = shortCircuit;
+        }
+
+        abstract Junction<T> create(List<Condition<T>> conditions);
+
+        @Override
+        public boolean test(T input) {
+            for (Condition<T> condition : conditions) {
+                if (condition.test(input) == shortCircuit) {
+                    return shortCircuit;
+                }
+            }
+            return !shortCircuit;
+        }
+
+        @Override
+        boolean test(T input, Extracted extracted) {
+            for (Condition<T> condition : conditions) {
+                if (condition.test(input, extracted) == shortCircuit) {
+                    return shortCircuit;
+                }
+            }
+            return !shortCircuit;
+        }
+
+        @Override
+        Condition<T> resolve(Field<?, ?> field, Region region) {
+            List<Condition<T>> remaining = new ArrayList<>(conditions.size());
+            boolean changed = false;
+
+            for (Condition<T> condition : conditions) {
+                Condition<T> resolved = condition.resolve(field, region);
+                changed |= resolved != condition;
+
+                if (resolved == constant(shortCircuit)) {
+                    return resolved;
+                }
+                if (resolved != constant(!shortCircuit)) {
+                    remaining.add(resolved);
+                }
+            }
+
+            if (!changed) { return this; }
+            if (remaining.isEmpty()) { return constant(!shortCircuit); }
+
+            return remaining.size() == 1 ? remaining.get(0) : create(remaining);
+        }
+
+        @Override
+        void collect(Field<?, ?> field, Consumer<Atom<?>> sink) {
+            for (Condition<T> condition : conditions) {
+                condition.collect(field, sink);
+            }
+        }
+
+        @Override
+        Field<?, ?> leadingField() {
+            return conditions.get(0).leadingField();
+        }
+    }
+
+    private static final class And<T> extends Junction<T> {
+
+        And(List<Condition<T>> conditions) {
+            super(conditions, false);
+        }
+
+        @Override
+        Junction<T> create(List<Condition<T>> conditions) {
+            return new And<>(conditions);
+        }
+    }
+
+    private static final class Or<T> extends Junction<T> {
+
+        Or(List<Condition<T>> conditions) {
+            super(conditions, true);
+        }
+
+        @Override
+        Junction<T> create(List<Condition<T>> conditions) {
+            return new Or<>(conditions);
+        }
+    }
+
+}
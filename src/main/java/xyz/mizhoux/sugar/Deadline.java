@@ -0,0 +1,230 @@
+package xyz.mizhoux.sugar;
+
+import xyz.mizhoux.sugar.function.CheckedSupplier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 当前线程上的截止时间
+ * <p>
+ * 由 {@link Attempt#withTimeout} 或 {@link Attempt#withDeadline} 包装的调用在执行期间会设置截止时间，
+ * 嵌套的调用取自身时限与外层截止时间中较早的一个，因此时间预算会逐层缩减而不是在每一层重新开始；
+ * 嵌套调用的截止时间不早于外层时，直接在当前线程上执行，由外层负责超时；截止时间更早时，
+ * 嵌套调用会在 Executor 中再占用一个线程，外层调用的线程在等待期间不会释放。
+ * <p>
+ * 超时通过中断执行调用的线程来取消，只对响应中断的操作有效（sleep、wait、Future.get、可中断的 Channel 等），
+ * 不响应中断的调用在超时后仍会占用线程直到结束。{@link #limitAbandoned} 包装的 Executor 会统计这些调用，
+ * 数量达到上限时拒绝新的调用，而正常结束的调用不受限制。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class Deadline {
+
+    /**
+     * 时限的上限，避免计算截止时间时溢出
+     */
+    private static final long MAX_NANOS = Long.MAX_VALUE >> 2;
+
+    /**
+     * 当前线程上的截止时间，以 System.nanoTime() 表示
+     */
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 调用的状态：尚未开始、执行中、已结束、超时后仍在执行
+     */
+    private static final int NEW = 0, RUNNING = 1, DONE = 2, ABANDONED = 3;
+
+    private Deadline() {
+    }
+
+    /**
+     * 获取当前线程上剩余的时间，可以用于设置 I/O 操作的超时时间
+     *
+     * @return 剩余的时间，不存在截止时间时返回 Optional.empty()；已经超时时返回 Duration.ZERO
+     */
+    public static Optional<Duration> remaining() {
+        Long deadline = CURRENT.get();
+        if (deadline == null) { return Optional.empty(); }
+
+        return Optional.of(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    }
+
+    /**
+     * @return 当前线程上的截止时间是否已经过去
+     */
+    public static boolean isExpired() {
+        Long deadline = CURRENT.get();
+        return deadline != null && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 由时限计算截止时间，存在更早的外层截止时间时以外层为准
+     */
+    static long after(Duration timeout) {
+        return earliest(System.nanoTime() + nanos(timeout));
+    }
+
+    /**
+     * 由时刻计算截止时间，存在更早的外层截止时间时以外层为准
+     */
+    static long at(Instant instant) {
+        Duration timeout = Duration.between(Instant.now(), instant);
+        return earliest(System.nanoTime() + (timeout.isNegative() ? 0 : nanos(timeout)));
+    }
+
+    /**
+     * 包装执行调用的 Executor：超时后仍在执行的调用达到上限时，拒绝新的调用
+     *
+     * @param executor     执行调用的 Executor，线程数不应有上限
+     * @param maxAbandoned 超时后仍在执行的调用的上限
+     * @return 包装后的 Executor
+     */
+    static Executor limitAbandoned(Executor executor, int maxAbandoned) {
+        return new AbandonLimited(executor, maxAbandoned);
+    }
+
+    /**
+     * 在 executor 中执行调用，并在截止时间到达时取消
+     *
+     * @param supplier 调用
+     * @param deadline 截止时间
+     * @param executor 执行调用的 Executor
+     * @param <R>      结果类型
+     * @return 调用的结果
+     * @throws TimeoutException 在截止时间前没有完成
+     * @throws Throwable        调用抛出的异常
+     */
+    static <R> R call(CheckedSupplier<R> supplier, long deadline, Executor executor) throws Throwable {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("Deadline exceeded before the call started");
+        }
+
+        Long current = CURRENT.get();
+        if (current != null && deadline - current >= 0) {
+            // 外层的调用已经在同一个截止时间上等待，无需再切换线程
+            return supplier.supply();
+        }
+
+        AtomicInteger abandoned = executor instanceof AbandonLimited ? ((AbandonLimited) executor).abandoned : null;
+        AtomicInteger state = new AtomicInteger(NEW);
+
+        FutureTask<R> task = new FutureTask<>(() -> {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                // 开始之前已经超时
+                return null;
+            }
+
+            Long outer = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                return supplier.supply();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new Undeclared(e);
+            } finally {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+
+                if (!state.compareAndSet(RUNNING, DONE) && abandoned != null) {
+                    abandoned.decrementAndGet();
+                }
+            }
+        });
+
+        executor.execute(task);
+
+        try {
+            return task.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(task, state, abandoned);
+            throw new TimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(remaining) + " ms");
+        } catch (InterruptedException e) {
+            abandon(task, state, abandoned);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Undeclared ? cause.getCause() : cause;
+        }
+    }
+
+    /**
+     * 中断执行调用的线程，调用不响应中断时记为超时后仍在执行
+     */
+    private static void abandon(FutureTask<?> task, AtomicInteger state, AtomicInteger abandoned) {
+        task.cancel(true);
+
+        if (!state.compareAndSet(NEW, DONE) && state.compareAndSet(RUNNING, ABANDONED) && abandoned != null) {
+            abandoned.incrementAndGet();
+        }
+    }
+
+    private static long earliest(long deadline) {
+        Long outer = CURRENT.get();
+        return outer != null && outer - deadline < 0 ? outer : deadline;
+    }
+
+    private static long nanos(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+
+        return timeout.compareTo(Duration.ofNanos(MAX_NANOS)) > 0 ? MAX_NANOS : timeout.toNanos();
+    }
+
+    /**
+     * 统计超时后仍在执行的调用的 Executor
+     */
+    private static final class AbandonLimited implements Executor {
+
+        private final Executor executor;
+
+        private final int maxAbandoned;
+
+        final AtomicInteger abandoned = new AtomicInteger();
+
+        AbandonLimited(Executor executor, int maxAbandoned) {
+            this.executor = executor;
+            this.maxAbandoned = maxAbandoned;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            int count = abandoned.get();
+            if (count >= maxAbandoned) {
+                throw new RejectedExecutionException(count + " timed out calls are still running");
+            }
+
+            executor.execute(command);
+        }
+    }
+
+    /**
+     * 包装既不是 Exception 也不是 Error 的 Throwable，以便通过 Callable 传递
+     */
+    private static final class Undeclared extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        Undeclared(Throwable cause) {
+            super(cause);
+        }
+    }
+
+}
@@ -0,0 +1,488 @@
+package xyz.mizhoux.sugar;
+
+import xyz.mizhoux.sugar.Condition.Atom;
+import xyz.mizhoux.sugar.Condition.Extracted;
+import xyz.mizhoux.sugar.Condition.Field;
+import xyz.mizhoux.sugar.Condition.InstanceOf;
+import xyz.mizhoux.sugar.Condition.Region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 由有序的分支编译而成的决策树
+ * <p>
+ * 每次选取第一个未决分支最左侧的字段作为当前节点：字段上只有相等条件时建立哈希节点，存在区间条件时建立区间节点，
+ * 然后在每个取值区域上化简所有分支并递归构建子树。字段一旦被某个节点判断过，在其子树中就不会再出现。
+ * 化简后完全相同的分支序列共享同一棵子树。
+ * <p>
+ * 第一个未决分支的最左侧是不透明判断或类型判断时，其后的字段受其保护（例如先判断类型再提取子类的字段），
+ * 不能提前提取，此时这些分支按顺序判断，并像 and/or 一样短路；被判断过的字段在一次求值中只提取一次，
+ * 但在之后的子树中可能再被提取。
+ * <p>
+ * 区间节点以 compareTo 定位取值，命中的端点与取值不 equals 时（例如 BigDecimal 的 1.0 与 1.00），
+ * 只化简区间条件，相等条件在子树中按 equals 重新判断，此时该字段会被再提取一次。
+ * <p>
+ * 多个字段的 or 组合会使子树的数量随字段数指数增长，因此节点数超过 {@link #MAX_NODES} 后，
+ * 其余的子树不再展开，而是按顺序判断剩下的分支，字段只在用到时提取，并且只提取一次。
+ * <p>
+ * 连续的 {@link Condition#instanceOf} 条件编译为一次类型分派，相等条件全部为同一枚举的常量时编译为枚举分派，
+ * 分派的实现由 {@link Dispatcher} 提供。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class DecisionTree {
+
+    /**
+     * 输入值本身，用于表示 is/isIn 条件
+     */
+    static final Field<Object, Object> INPUT = Condition.field(input -> input);
+
+    /**
+     * 没有分支被满足
+     */
+    private static final Node MISS = new Leaf(null);
+
+    /**
+     * 展开的节点数上限
+     */
+    static final int MAX_NODES = 1 << 12;
+
+    private final Node root;
+
+    private DecisionTree(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * 编译有序的分支
+     *
+     * @param conditions 分支的条件
+     * @param actions    分支的动作，不能为 null
+     * @return 决策树
+     */
+    static DecisionTree compile(List<Condition<Object>> conditions, List<Object> actions) {
+        List<Rule> rules = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            rules.add(new Rule(i, conditions.get(i), actions.get(i)));
+        }
+
+        return new DecisionTree(new Builder().build(rules));
+    }
+
+    /**
+     * 对输入值求值
+     *
+     * @param input 输入值
+     * @return 第一个被满足的分支的动作，没有分支被满足时返回 null
+     */
+    Object evaluate(Object input) {
+        Node node = root;
+        while (!(node instanceof Leaf)) {
+            node = node.next(input);
+        }
+
+        return ((Leaf) node).action;
+    }
+
+    private static final class Rule {
+
+        final int index;
+
+        final Condition<Object> condition;
+
+        final Object action;
+
+        Rule(int index, Condition<Object> condition, Object action) {
+            this.index = index;
+            this.condition = condition;
+            this.action = action;
+        }
+    }
+
+    private static final class Builder {
+
+        /**
+         * 化简后的分支序列到子树的缓存，分支序列以 (下标, 条件实例) 区分
+         */
+        private final Map<List<Object>, Node> cache = new HashMap<>();
+
+        /**
+         * 已经展开的节点数
+         */
+        private int nodes;
+
+        Node build(List<Rule> rules) {
+            List<Object> key = new ArrayList<>(rules.size() * 2);
+            for (Rule rule : rules) {
+                key.add(rule.index);
+                key.add(new Identity(rule.condition));
+            }
+
+            Node node = cache.get(key);
+            if (node == null) {
+                node = create(rules);
+                cache.put(key, node);
+            }
+
+            return node;
+        }
+
+        private Node create(List<Rule> rules) {
+            if (rules.isEmpty()) { return MISS; }
+
+            Rule first = rules.get(0);
+            if (first.condition == Condition.TRUE) {
+                return new Leaf(first.action);
+            }
+
+            if (++nodes > MAX_NODES) {
+                return new Tests(rules, MISS);
+            }
+
+            if (first.condition instanceof InstanceOf) {
+                // 连续的类型判断合并为一次类型分派
+                int end = 1;
+                while (end < rules.size() && rules.get(end).condition instanceof InstanceOf) {
+                    end++;
+                }
+
+                return new Types(rules.subList(0, end), build(rules.subList(end, rules.size())));
+            }
+
+            Field<?, ?> field = first.condition.leadingField();
+            if (field == null) {
+                // 最左侧不是字段的连续分支合并为一个节点，按顺序测试
+                int end = 1;
+                while (end < rules.size() && rules.get(end).condition.leadingField() == null
+                       && !(rules.get(end).condition instanceof InstanceOf)) {
+                    end++;
+                }
+
+                return new Tests(rules.subList(0, end), build(rules.subList(end, rules.size())));
+            }
+
+            Set<Object> points = new LinkedHashSet<>();
+            List<Atom<?>> ranges = new ArrayList<>();
+            for (Rule rule : rules) {
+                rule.condition.collect(field, atom -> {
+                    switch (atom.kind) {
+                        case Atom.EQ:
+                            points.add(atom.value);
+                            break;
+                        case Atom.IN:
+                            points.addAll(atom.values);
+                            break;
+                        default:
+                            ranges.add(atom);
+                    }
+                });
+            }
+
+            return ranges.isEmpty() ? hash(rules, field, points) : range(rules, field, points, ranges);
+        }
+
+        private Node hash(List<Rule> rules, Field<?, ?> field, Set<Object> points) {
+            Class<?> enumType = enumType(points);
+            if (enumType != null) {
+                Enum<?>[] labels = points.toArray(new Enum<?>[0]);
+                Node[] children = new Node[labels.length];
+                for (int i = 0; i < labels.length; i++) {
+                    children[i] = build(resolve(rules, field, Region.point(labels[i])));
+                }
+
+                return new Enums(field, Dispatcher.enums(enumType, labels), children,
+                                 build(resolve(rules, field, Region.ANY_OTHER)));
+            }
+
+            KeyIndex children = new KeyIndex(1, points.size());
+            for (Object point : points) {
+                children.putIfAbsent(new Object[] { point }, build(resolve(rules, field, Region.point(point))));
+            }
+
+            return new Hash(field, children, build(resolve(rules, field, Region.ANY_OTHER)));
+        }
+
+        private Node range(List<Rule> rules, Field<?, ?> field, Set<Object> points, List<Atom<?>> ranges) {
+            TreeSet<Object> sorted = new TreeSet<>(Condition::compare);
+            for (Object point : points) {
+                if (point != null) { sorted.add(point); }
+            }
+            for (Atom<?> atom : ranges) {
+                sorted.add(atom.value);
+                sorted.add(atom.high);
+            }
+
+            Object[] bounds = sorted.toArray();
+            Node[] pointNodes = new Node[bounds.length];
+            // 不存在相等条件时，与端点 compareTo 为 0 的取值可以直接使用端点的子树
+            Node[] boundNodes = points.isEmpty() ? pointNodes : new Node[bounds.length];
+            Node[] gapNodes = new Node[bounds.length + 1];
+
+            for (int i = 0; i <= bounds.length; i++) {
+                Object lower = i == 0 ? null : bounds[i - 1];
+                Object upper = i == bounds.length ? null : bounds[i];
+                gapNodes[i] = build(resolve(rules, field, Region.gap(lower, upper)));
+
+                if (i < bounds.length) {
+                    pointNodes[i] = build(resolve(rules, field, Region.point(bounds[i])));
+                    if (boundNodes != pointNodes) {
+                        boundNodes[i] = build(resolve(rules, field, Region.bound(bounds[i])));
+                    }
+                }
+            }
+
+            return new Range(field, bounds, pointNodes, boundNodes, gapNodes,
+                             build(resolve(rules, field, Region.point(null))));
+        }
+
+        /**
+         * @return 所有的值都是同一枚举的常量时返回该枚举类型，否则返回 null
+         */
+        private static Class<?> enumType(Set<Object> points) {
+            Class<?> type = null;
+            for (Object point : points) {
+                if (!(point instanceof Enum)) { return null; }
+
+                Class<?> declaring = ((Enum<?>) point).getDeclaringClass();
+                if (type != null && type != declaring) { return null; }
+                type = declaring;
+            }
+            return type;
+        }
+
+        private static List<Rule> resolve(List<Rule> rules, Field<?, ?> field, Region region) {
+            List<Rule> resolved = new ArrayList<>(rules.size());
+
+            for (Rule rule : rules) {
+                Condition<Object> condition = rule.condition.resolve(field, region);
+                if (condition == Condition.FALSE) { continue; }
+
+                resolved.add(condition == rule.condition ? rule : new Rule(rule.index, condition, rule.action));
+                // 之后的分支不可能被满足
+                if (condition == Condition.TRUE) { break; }
+            }
+
+            return resolved;
+        }
+    }
+
+    /**
+     * 以引用比较的包装，用于缓存的 key
+     */
+    private static final class Identity {
+
+        private final Object target;
+
+        Identity(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).target == target;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(target);
+        }
+    }
+
+    private abstract static class Node {
+
+        /**
+         * @return 输入值在当前节点上选择的子节点
+         */
+        abstract Node next(Object input);
+    }
+
+    private static final class Leaf extends Node {
+
+        private final Object action;
+
+        Leaf(Object action) {
+            this.action = action;
+        }
+
+        @Override
+        Node next(Object input) {
+            return this;
+        }
+    }
+
+    /**
+     * 按顺序判断分支，字段在用到时才提取，并且在本节点中只提取一次。也用于超出节点数上限后剩下的分支
+     */
+    private static final class Tests extends Node {
+
+        private final Condition<?>[] conditions;
+
+        private final Leaf[] leaves;
+
+        /**
+         * 所有判断都不满足时的子节点
+         */
+        private final Node rest;
+
+        Tests(List<Rule> rules, Node rest) {
+            this.conditions = new Condition<?>[rules.size()];
+            this.leaves = new Leaf[rules.size()];
+            for (int i = 0; i < conditions.length; i++) {
+                conditions[i] = rules.get(i).condition;
+                leaves[i] = new Leaf(rules.get(i).action);
+            }
+            this.rest = rest;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node next(Object input) {
+            Extracted extracted = new Extracted();
+            for (int i = 0; i < conditions.length; i++) {
+                if (((Condition<Object>) conditions[i]).test(input, extracted)) {
+                    return leaves[i];
+                }
+            }
+            return rest;
+        }
+    }
+
+    private static final class Types extends Node {
+
+        private final Dispatcher dispatcher;
+
+        private final Leaf[] leaves;
+
+        /**
+         * 所有类型都不匹配时的子节点
+         */
+        private final Node rest;
+
+        Types(List<Rule> rules, Node rest) {
+            Class<?>[] labels = new Class<?>[rules.size()];
+            this.leaves = new Leaf[rules.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = ((InstanceOf<?>) rules.get(i).condition).type;
+                leaves[i] = new Leaf(rules.get(i).action);
+            }
+
+            this.dispatcher = Dispatcher.types(labels);
+            this.rest = rest;
+        }
+
+        @Override
+        Node next(Object input) {
+            int i = dispatcher.index(input);
+            return i >= 0 && i < leaves.length ? leaves[i] : rest;
+        }
+    }
+
+    private static final class Enums extends Node {
+
+        @SuppressWarnings("rawtypes")
+        private final Field field;
+
+        private final Dispatcher dispatcher;
+
+        private final Node[] children;
+
+        private final Node otherwise;
+
+        Enums(Field<?, ?> field, Dispatcher dispatcher, Node[] children, Node otherwise) {
+            this.field = field;
+            this.dispatcher = dispatcher;
+            this.children = children;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node next(Object input) {
+            int i = dispatcher.index(field.extract(input));
+            return i >= 0 && i < children.length ? children[i] : otherwise;
+        }
+    }
+
+    private static final class Hash extends Node {
+
+        @SuppressWarnings("rawtypes")
+        private final Field field;
+
+        private final KeyIndex children;
+
+        private final Node otherwise;
+
+        Hash(Field<?, ?> field, KeyIndex children, Node otherwise) {
+            this.field = field;
+            this.children = children;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node next(Object input) {
+            Node child = (Node) children.get(field.extract(input));
+            return child == null ? otherwise : child;
+        }
+    }
+
+    private static final class Range extends Node {
+
+        @SuppressWarnings("rawtypes")
+        private final Field field;
+
+        /**
+         * 升序排列的区间端点以及相等条件中的值
+         */
+        private final Object[] bounds;
+
+        private final Node[] pointNodes;
+
+        /**
+         * boundNodes[i] 对应与 bounds[i] 的 compareTo 为 0 但不 equals 的取值
+         */
+        private final Node[] boundNodes;
+
+        /**
+         * gapNodes[i] 对应 (bounds[i - 1], bounds[i]) 之间的取值
+         */
+        private final Node[] gapNodes;
+
+        private final Node nullNode;
+
+        Range(Field<?, ?> field, Object[] bounds, Node[] pointNodes, Node[] boundNodes, Node[] gapNodes,
+              Node nullNode) {
+            this.field = field;
+            this.bounds = bounds;
+            this.pointNodes = pointNodes;
+            this.boundNodes = boundNodes;
+            this.gapNodes = gapNodes;
+            this.nullNode = nullNode;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Node next(Object input) {
+            Object value = field.extract(input);
+            if (value == null) {
+                return nullNode;
+            }
+
+            int i = Arrays.binarySearch(bounds, value, Condition::compare);
+            if (i < 0) {
+                return gapNodes[-i - 1];
+            }
+
+            return value.equals(bounds[i]) ? pointNodes[i] : boundNodes[i];
+        }
+    }
+
+}
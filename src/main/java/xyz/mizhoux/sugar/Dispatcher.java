@@ -0,0 +1,68 @@
+package xyz.mizhoux.sugar;
+
+import java.util.Arrays;
+
+/**
+ * 将输入值映射为第一个匹配的分支下标
+ * <p>
+ * 类型分派按类缓存结果，枚举分派按 ordinal 查表。JDK 21 的 SwitchBootstraps 经 dynamicInvoker 调用时
+ * 不是常量调用点，实测并不比这两种实现更快，因此所有 JDK 版本都使用这里的实现。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+@FunctionalInterface
+interface Dispatcher {
+
+    /**
+     * @param value 输入值
+     * @return 第一个匹配的分支下标；输入值为 null 时返回 -1，没有匹配的分支时返回分支的个数
+     */
+    int index(Object value);
+
+    /**
+     * 按类型分派：返回第一个输入值是其实例的类型的下标，每个类型的结果会被缓存
+     *
+     * @param labels 有序的类型
+     * @return 分派器
+     */
+    static Dispatcher types(Class<?>[] labels) {
+        Class<?>[] types = labels.clone();
+
+        ClassValue<Integer> indexes = new ClassValue<Integer>() {
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                for (int i = 0; i < types.length; i++) {
+                    if (types[i].isAssignableFrom(type)) {
+                        return i;
+                    }
+                }
+                return types.length;
+            }
+        };
+
+        return value -> value == null ? -1 : indexes.get(value.getClass());
+    }
+
+    /**
+     * 按枚举常量分派：返回与输入值相同的常量的下标
+     *
+     * @param type   枚举类型
+     * @param labels 有序的枚举常量，不能重复
+     * @return 分派器
+     */
+    static Dispatcher enums(Class<?> type, Enum<?>[] labels) {
+        int[] indexes = new int[type.getEnumConstants().length];
+        Arrays.fill(indexes, labels.length);
+        for (int i = labels.length - 1; i >= 0; i--) {
+            indexes[labels[i].ordinal()] = i;
+        }
+
+        return value -> {
+            if (value == null) { return -1; }
+
+            return type.isInstance(value) ? indexes[((Enum<?>) value).ordinal()] : labels.length;
+        };
+    }
+
+}
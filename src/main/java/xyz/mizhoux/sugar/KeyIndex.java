@@ -0,0 +1,135 @@
+package xyz.mizhoux.sugar;
+
+import java.util.Objects;
+
+/**
+ * 以一个或多个值组成的复合 key 建立的开放寻址哈希索引
+ * <p>
+ * 复合 key 的各个部分平铺存放在同一个数组中，查找时直接由各个部分计算组合的哈希值并逐个比较，
+ * 不需要为每次查找创建元组对象。key 的各个部分可以为 null，值不能为 null。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class KeyIndex {
+
+    /**
+     * 复合 key 的部分数
+     */
+    private final int arity;
+
+    /**
+     * 平铺存放的 key，第 i 个槽位的 key 位于 [i * arity, (i + 1) * arity)
+     */
+    private final Object[] keys;
+
+    /**
+     * 槽位上的值，为 null 表示槽位为空
+     */
+    private final Object[] values;
+
+    private final int mask;
+
+    private int size;
+
+    /**
+     * @param arity    复合 key 的部分数
+     * @param expected 预期的 key 个数
+     */
+    KeyIndex(int arity, int expected) {
+        int capacity = Integer.highestOneBit(Math.max(2, expected * 2) - 1) << 1;
+
+        this.arity = arity;
+        this.keys = new Object[capacity * arity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 放入一个复合 key，如果该 key 已经存在，则保留原来的值
+     *
+     * @param parts 复合 key 的各个部分
+     * @param value 值
+     * @return 是否放入成功
+     */
+    boolean putIfAbsent(Object[] parts, Object value) {
+        Objects.requireNonNull(value);
+        if (parts.length != arity) {
+            throw new IllegalArgumentException("Expected " + arity + " key parts but got " + parts.length);
+        }
+
+        int h = 0;
+        for (Object part : parts) {
+            h = 31 * h + Objects.hashCode(part);
+        }
+
+        for (int slot = spread(h); ; slot = (slot + 1) & mask) {
+            if (values[slot] == null) {
+                if (size * 2 >= values.length) {
+                    throw new IllegalStateException("KeyIndex is full");
+                }
+
+                System.arraycopy(parts, 0, keys, slot * arity, arity);
+                values[slot] = value;
+                size++;
+                return true;
+            }
+
+            if (matches(slot, parts)) {
+                return false;
+            }
+        }
+    }
+
+    Object get(Object a) {
+        for (int slot = spread(Objects.hashCode(a)); values[slot] != null; slot = (slot + 1) & mask) {
+            if (Objects.equals(keys[slot], a)) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    Object get(Object a, Object b) {
+        int h = 31 * Objects.hashCode(a) + Objects.hashCode(b);
+
+        for (int slot = spread(h); values[slot] != null; slot = (slot + 1) & mask) {
+            int base = slot << 1;
+            if (Objects.equals(keys[base], a) && Objects.equals(keys[base + 1], b)) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    Object get(Object a, Object b, Object c) {
+        int h = 31 * (31 * Objects.hashCode(a) + Objects.hashCode(b)) + Objects.hashCode(c);
+
+        for (int slot = spread(h); values[slot] != null; slot = (slot + 1) & mask) {
+            int base = slot * 3;
+            if (Objects.equals(keys[base], a) && Objects.equals(keys[base + 1], b) && Objects.equals(keys[base + 2], c)) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean matches(int slot, Object[] parts) {
+        int base = slot * arity;
+        for (int i = 0; i < arity; i++) {
+            if (!Objects.equals(keys[base + i], parts[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int spread(int h) {
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+}
@@ -0,0 +1,200 @@
+package xyz.mizhoux.sugar;
+
+import xyz.mizhoux.sugar.function.CheckedSupplier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 带过期时间的记忆化 Supplier：
+ * <ul>
+ *     <li>同一时刻只有一个线程执行加载，其余线程等待同一个加载结果</li>
+ *     <li>值临近过期时在后台异步刷新，读线程不会因刷新而阻塞</li>
+ *     <li>加载失败的结果会被缓存一段时间，避免反复冲击出错的数据源</li>
+ * </ul>
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class MemoizingSupplier<R> implements Supplier<R> {
+
+    /**
+     * 值存活时间经过该比例后触发异步刷新
+     */
+    private static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    private final CheckedSupplier<R> supplier;
+
+    private final Function<Throwable, R> handler;
+
+    private final Executor executor;
+
+    private final long ttlNanos;
+
+    private final long refreshNanos;
+
+    private final long failureTtlNanos;
+
+    /**
+     * 以纳秒表示的当前时间
+     */
+    private final LongSupplier clock;
+
+    /**
+     * 当前缓存的加载结果
+     */
+    private volatile Entry<R> entry;
+
+    /**
+     * 正在进行中的加载
+     */
+    private final AtomicReference<CompletableFuture<Entry<R>>> inflight = new AtomicReference<>();
+
+    MemoizingSupplier(CheckedSupplier<R> supplier, long ttlNanos, long failureTtlNanos,
+                      Function<Throwable, R> handler, Executor executor) {
+        this(supplier, ttlNanos, failureTtlNanos, handler, executor, System::nanoTime);
+    }
+
+    MemoizingSupplier(CheckedSupplier<R> supplier, long ttlNanos, long failureTtlNanos,
+                      Function<Throwable, R> handler, Executor executor, LongSupplier clock) {
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (failureTtlNanos < 0) {
+            throw new IllegalArgumentException("failureTtl must not be negative");
+        }
+
+        this.supplier = supplier;
+        this.handler = handler;
+        this.executor = executor;
+        this.ttlNanos = ttlNanos;
+        this.refreshNanos = (long) (ttlNanos * REFRESH_AHEAD_RATIO);
+        this.failureTtlNanos = failureTtlNanos;
+        this.clock = clock;
+    }
+
+    @Override
+    public R get() {
+        Entry<R> current = entry;
+        long now = clock.getAsLong();
+
+        if (current != null && now - current.expireAt < 0) {
+            // 临近过期，后台刷新，当前线程直接返回旧值
+            if (now - current.refreshAt >= 0) {
+                load(true);
+            }
+
+            return current.get(handler);
+        }
+
+        return load(false).join().get(handler);
+    }
+
+    /**
+     * 发起加载，如果已经存在进行中的加载，则直接复用
+     *
+     * @param async 是否在 executor 中异步加载
+     * @return 加载结果
+     */
+    private CompletableFuture<Entry<R>> load(boolean async) {
+        for (;;) {
+            CompletableFuture<Entry<R>> running = inflight.get();
+            if (running != null) {
+                return running;
+            }
+
+            CompletableFuture<Entry<R>> mine = new CompletableFuture<>();
+            if (!inflight.compareAndSet(null, mine)) {
+                continue;
+            }
+
+            // 读取 entry 之后、CAS 之前，可能已有其他线程完成了加载并清除了标记
+            Entry<R> current = entry;
+            if (current != null && !due(current, async, clock.getAsLong())) {
+                inflight.set(null);
+                mine.complete(current);
+                return mine;
+            }
+
+            if (!async) {
+                complete(mine);
+                return mine;
+            }
+
+            try {
+                executor.execute(() -> complete(mine));
+            } catch (RejectedExecutionException e) {
+                // 无法异步刷新时保留旧值，等待下一次读取再尝试
+                inflight.set(null);
+                mine.complete(entry);
+            }
+
+            return mine;
+        }
+    }
+
+    /**
+     * @return 同步加载时判断是否已经过期，异步刷新时判断是否已经进入刷新窗口
+     */
+    private static boolean due(Entry<?> current, boolean async, long now) {
+        return now - (async ? current.refreshAt : current.expireAt) >= 0;
+    }
+
+    private void complete(CompletableFuture<Entry<R>> future) {
+        Entry<R> loaded;
+        try {
+            R value = supplier.supply();
+            long now = clock.getAsLong();
+            loaded = new Entry<>(value, null, now + refreshNanos, now + ttlNanos);
+        } catch (Throwable e) {
+            long now = clock.getAsLong();
+            Entry<R> previous = entry;
+
+            if (previous != null && previous.failure == null && now - previous.expireAt < 0) {
+                // 刷新失败，继续使用尚未过期的旧值，并推迟下一次刷新
+                long refreshAt = now + failureTtlNanos;
+                loaded = new Entry<>(previous.value, null,
+                                     refreshAt - previous.expireAt < 0 ? refreshAt : previous.expireAt,
+                                     previous.expireAt);
+            } else {
+                loaded = new Entry<>(null, e, now + failureTtlNanos, now + failureTtlNanos);
+            }
+        }
+
+        // 先发布结果再清除进行中的标记，保证后来的线程能看到新值
+        entry = loaded;
+        inflight.set(null);
+        future.complete(loaded);
+    }
+
+    /**
+     * 一次加载的结果
+     */
+    private static final class Entry<R> {
+
+        final R value;
+
+        final Throwable failure;
+
+        final long refreshAt;
+
+        final long expireAt;
+
+        Entry(R value, Throwable failure, long refreshAt, long expireAt) {
+            this.value = value;
+            this.failure = failure;
+            this.refreshAt = refreshAt;
+            this.expireAt = expireAt;
+        }
+
+        R get(Function<Throwable, R> handler) {
+            return failure == null ? value : handler.apply(failure);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package xyz.mizhoux.sugar;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 与 JDK 版本相关的实现，JDK 21 及以上使用 META-INF/versions/21 中的同名类
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class Platform {
+
+    /**
+     * 超时后仍在执行的调用的上限
+     */
+    private static final int MAX_ABANDONED = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    /**
+     * 执行阻塞调用的守护线程池，空闲的线程会被回收。正常的调用不受线程数限制；
+     * 不响应中断的调用超时后仍会占用线程，这样的调用达到上限时拒绝新的调用，避免线程无限制地泄漏
+     */
+    private static final Executor BLOCKING =
+        Deadline.limitAbandoned(Executors.newCachedThreadPool(new DaemonThreadFactory()), MAX_ABANDONED);
+
+    private Platform() {
+    }
+
+    /**
+     * @return 执行可能长时间阻塞的调用的 Executor，超时后仍在执行的调用过多时抛出 RejectedExecutionException
+     */
+    static Executor blockingExecutor() {
+        return BLOCKING;
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "msugar-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
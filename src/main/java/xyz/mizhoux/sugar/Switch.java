@@ -1,7 +1,12 @@
 package xyz.mizhoux.sugar;
 
+import xyz.mizhoux.sugar.function.TriFunction;
+import xyz.mizhoux.sugar.function.TriPredicate;
+
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -57,6 +62,76 @@ public class Switch<T> {
         return new EvaluationSwitch<>(input);
     }
 
+    /**
+     * 在指定的两个输入值上使用 Switch，返回用于求值的 Switch 实例
+     *
+     * @param a   第一个输入值
+     * @param b   第二个输入值
+     * @param <A> 第一个输入类型
+     * @param <B> 第二个输入类型
+     * @param <O> 输出类型
+     * @return 用于求值的 Switch 实例
+     */
+    public static <A, B, O> BiEvaluationSwitch<A, B, O> in(A a, B b) {
+        return new BiEvaluationSwitch<>(a, b);
+    }
+
+    /**
+     * 在指定的三个输入值上使用 Switch，返回用于求值的 Switch 实例
+     *
+     * @param a   第一个输入值
+     * @param b   第二个输入值
+     * @param c   第三个输入值
+     * @param <A> 第一个输入类型
+     * @param <B> 第二个输入类型
+     * @param <C> 第三个输入类型
+     * @param <O> 输出类型
+     * @return 用于求值的 Switch 实例
+     */
+    public static <A, B, C, O> TriEvaluationSwitch<A, B, C, O> in(A a, B b, C c) {
+        return new TriEvaluationSwitch<>(a, b, c);
+    }
+
+    /**
+     * 定义一个可以重复求值的 Switch，分支在定义完成时被编译
+     *
+     * @param type 输入值的类型
+     * @param <I>  输入类型
+     * @return 用于定义 CompiledSwitch 的构建器
+     */
+    public static <I> CompiledSwitch.Builder<I, Object> define(Class<I> type) {
+        return new CompiledSwitch.Builder<>();
+    }
+
+    /**
+     * 定义一个可以重复求值的双输入 Switch，分支在定义完成时被编译
+     *
+     * @param typeA 第一个输入值的类型
+     * @param typeB 第二个输入值的类型
+     * @param <A>   第一个输入类型
+     * @param <B>   第二个输入类型
+     * @return 用于定义 CompiledBiSwitch 的构建器
+     */
+    public static <A, B> CompiledBiSwitch.Builder<A, B, Object> define(Class<A> typeA, Class<B> typeB) {
+        return new CompiledBiSwitch.Builder<>();
+    }
+
+    /**
+     * 定义一个可以重复求值的三输入 Switch，分支在定义完成时被编译
+     *
+     * @param typeA 第一个输入值的类型
+     * @param typeB 第二个输入值的类型
+     * @param typeC 第三个输入值的类型
+     * @param <A>   第一个输入类型
+     * @param <B>   第二个输入类型
+     * @param <C>   第三个输入类型
+     * @return 用于定义 CompiledTriSwitch 的构建器
+     */
+    public static <A, B, C> CompiledTriSwitch.Builder<A, B, C, Object> define(Class<A> typeA, Class<B> typeB,
+                                                                             Class<C> typeC) {
+        return new CompiledTriSwitch.Builder<>();
+    }
+
     /**
      * 判断输入是否和给定的目标相等
      *
@@ -329,4 +404,373 @@ public class Switch<T> {
         }
     }
 
+    /**
+     * 用于求值的双输入 Switch
+     *
+     * @param <A> 第一个输入值的类型
+     * @param <B> 第二个输入值的类型
+     * @param <O> 输出值的类型
+     */
+    public static class BiEvaluationSwitch<A, B, O> {
+
+        /**
+         * 输入值
+         */
+        final A a;
+
+        final B b;
+
+        /**
+         * 当前的条件
+         */
+        BiPredicate<? super A, ? super B> condition;
+
+        /**
+         * 是否已经存在某个条件被满足
+         */
+        boolean met;
+
+        /**
+         * 输出
+         */
+        private O output;
+
+        BiEvaluationSwitch(A a, B b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * 判断输入是否和给定的目标分别相等
+         *
+         * @param x 第一个输入的目标
+         * @param y 第二个输入的目标
+         * @return 当前 Switch 实例
+         */
+        public BiEvaluationSwitch<A, B, O> is(A x, B y) {
+            if (met) { return this; }
+
+            condition = (a, b) -> Objects.equals(a, x) && Objects.equals(b, y);
+            return this;
+        }
+
+        /**
+         * 设定输入值需要满足的条件
+         *
+         * @param condition 输入值需要满足的条件
+         * @return 当前 Switch 实例
+         */
+        public BiEvaluationSwitch<A, B, O> when(BiPredicate<? super A, ? super B> condition) {
+            if (met) { return this; }
+
+            this.condition = Objects.requireNonNull(condition);
+            return this;
+        }
+
+        /**
+         * 设定当前 BiEvaluationSwitch 的输出值的类型
+         *
+         * @param type 输出值的类型
+         * @param <R>  指定的输出值类型
+         * @return 当前的 BiEvaluationSwitch 实例
+         */
+        @SuppressWarnings("unchecked")
+        public <R> BiEvaluationSwitch<A, B, R> out(Class<? extends R> type) {
+            return (BiEvaluationSwitch<A, B, R>) this;
+        }
+
+        /**
+         * 满足某个条件时，进行求值操作
+         *
+         * @param value 指定的输出值
+         * @return 当前 Switch 实例
+         */
+        public BiEvaluationSwitch<A, B, O> thenGet(O value) {
+            if (met) { return this; }
+
+            if (test()) {
+                output = value;
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 满足某个条件时，使用 BiFunction 进行求值操作，当前 Switch 实例的输入值会作为 BiFunction 的输入
+         *
+         * @param mapper 指定的 BiFunction
+         * @return 当前 Switch 实例
+         */
+        public BiEvaluationSwitch<A, B, O> thenApply(BiFunction<? super A, ? super B, ? extends O> mapper) {
+            if (met) { return this; }
+
+            Objects.requireNonNull(mapper);
+
+            if (test()) {
+                output = mapper.apply(a, b);
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 满足某个条件时，使用 Supplier 进行求值操作
+         *
+         * @param supplier 指定的 Supplier
+         * @return 当前 Switch 实例
+         */
+        public BiEvaluationSwitch<A, B, O> thenSupply(Supplier<? extends O> supplier) {
+            if (met) { return this; }
+
+            Objects.requireNonNull(supplier);
+
+            if (test()) {
+                output = supplier.get();
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 不满足任一条件时，进行求值操作
+         *
+         * @param value 指定的输出值
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的输出值
+         */
+        public O elseGet(O value) {
+            return met ? output : value;
+        }
+
+        /**
+         * 不满足任一条件时，使用 BiFunction 进行求值操作，当前 Switch 实例的输入值会作为 BiFunction 的输入
+         *
+         * @param mapper 指定的 BiFunction
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的 BiFunction 产生的输出值
+         */
+        public O elseApply(BiFunction<? super A, ? super B, ? extends O> mapper) {
+            Objects.requireNonNull(mapper);
+
+            return met ? output : mapper.apply(a, b);
+        }
+
+        /**
+         * 不满足任一条件时，使用 Supplier 进行求值操作
+         *
+         * @param supplier 指定的 Supplier
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的 Supplier 产生的输出值
+         */
+        public O elseSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return met ? output : supplier.get();
+        }
+
+        /**
+         * 直接获取输出值
+         *
+         * @return 使用 Optional 包装的输出值
+         */
+        public Optional<O> obtain() {
+            return Optional.ofNullable(output);
+        }
+
+        private boolean test() {
+            if (condition == null) {
+                throw new IllegalStateException("A condition must be set first");
+            }
+
+            return condition.test(a, b);
+        }
+    }
+
+    /**
+     * 用于求值的三输入 Switch
+     *
+     * @param <A> 第一个输入值的类型
+     * @param <B> 第二个输入值的类型
+     * @param <C> 第三个输入值的类型
+     * @param <O> 输出值的类型
+     */
+    public static class TriEvaluationSwitch<A, B, C, O> {
+
+        /**
+         * 输入值
+         */
+        final A a;
+
+        final B b;
+
+        final C c;
+
+        /**
+         * 当前的条件
+         */
+        TriPredicate<? super A, ? super B, ? super C> condition;
+
+        /**
+         * 是否已经存在某个条件被满足
+         */
+        boolean met;
+
+        /**
+         * 输出
+         */
+        private O output;
+
+        TriEvaluationSwitch(A a, B b, C c) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+        /**
+         * 判断输入是否和给定的目标分别相等
+         *
+         * @param x 第一个输入的目标
+         * @param y 第二个输入的目标
+         * @param z 第三个输入的目标
+         * @return 当前 Switch 实例
+         */
+        public TriEvaluationSwitch<A, B, C, O> is(A x, B y, C z) {
+            if (met) { return this; }
+
+            condition = (a, b, c) -> Objects.equals(a, x) && Objects.equals(b, y) && Objects.equals(c, z);
+            return this;
+        }
+
+        /**
+         * 设定输入值需要满足的条件
+         *
+         * @param condition 输入值需要满足的条件
+         * @return 当前 Switch 实例
+         */
+        public TriEvaluationSwitch<A, B, C, O> when(TriPredicate<? super A, ? super B, ? super C> condition) {
+            if (met) { return this; }
+
+            this.condition = Objects.requireNonNull(condition);
+            return this;
+        }
+
+        /**
+         * 设定当前 TriEvaluationSwitch 的输出值的类型
+         *
+         * @param type 输出值的类型
+         * @param <R>  指定的输出值类型
+         * @return 当前的 TriEvaluationSwitch 实例
+         */
+        @SuppressWarnings("unchecked")
+        public <R> TriEvaluationSwitch<A, B, C, R> out(Class<? extends R> type) {
+            return (TriEvaluationSwitch<A, B, C, R>) this;
+        }
+
+        /**
+         * 满足某个条件时，进行求值操作
+         *
+         * @param value 指定的输出值
+         * @return 当前 Switch 实例
+         */
+        public TriEvaluationSwitch<A, B, C, O> thenGet(O value) {
+            if (met) { return this; }
+
+            if (test()) {
+                output = value;
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 满足某个条件时，使用 TriFunction 进行求值操作，当前 Switch 实例的输入值会作为 TriFunction 的输入
+         *
+         * @param mapper 指定的 TriFunction
+         * @return 当前 Switch 实例
+         */
+        public TriEvaluationSwitch<A, B, C, O> thenApply(TriFunction<? super A, ? super B, ? super C, ? extends O> mapper) {
+            if (met) { return this; }
+
+            Objects.requireNonNull(mapper);
+
+            if (test()) {
+                output = mapper.apply(a, b, c);
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 满足某个条件时，使用 Supplier 进行求值操作
+         *
+         * @param supplier 指定的 Supplier
+         * @return 当前 Switch 实例
+         */
+        public TriEvaluationSwitch<A, B, C, O> thenSupply(Supplier<? extends O> supplier) {
+            if (met) { return this; }
+
+            Objects.requireNonNull(supplier);
+
+            if (test()) {
+                output = supplier.get();
+                met = true;
+            }
+
+            return this;
+        }
+
+        /**
+         * 不满足任一条件时，进行求值操作
+         *
+         * @param value 指定的输出值
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的输出值
+         */
+        public O elseGet(O value) {
+            return met ? output : value;
+        }
+
+        /**
+         * 不满足任一条件时，使用 TriFunction 进行求值操作，当前 Switch 实例的输入值会作为 TriFunction 的输入
+         *
+         * @param mapper 指定的 TriFunction
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的 TriFunction 产生的输出值
+         */
+        public O elseApply(TriFunction<? super A, ? super B, ? super C, ? extends O> mapper) {
+            Objects.requireNonNull(mapper);
+
+            return met ? output : mapper.apply(a, b, c);
+        }
+
+        /**
+         * 不满足任一条件时，使用 Supplier 进行求值操作
+         *
+         * @param supplier 指定的 Supplier
+         * @return 如果某个条件被满足，则返回满足条件时所求的值；否则返回指定的 Supplier 产生的输出值
+         */
+        public O elseSupply(Supplier<? extends O> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return met ? output : supplier.get();
+        }
+
+        /**
+         * 直接获取输出值
+         *
+         * @return 使用 Optional 包装的输出值
+         */
+        public Optional<O> obtain() {
+            return Optional.ofNullable(output);
+        }
+
+        private boolean test() {
+            if (condition == null) {
+                throw new IllegalStateException("A condition must be set first");
+            }
+
+            return condition.test(a, b, c);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package xyz.mizhoux.sugar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * 编译 Switch 时收集的分支，与输入的个数无关
+ * <p>
+ * 条件为相等判断的连续分支会被合并到同一个 {@link KeyIndex} 中，只需一次哈希查找；
+ * 其余分支保持原有的顺序逐个判断。单输入的分支还可以编译为 {@link DecisionTree}。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class SwitchCases {
+
+    /**
+     * 输入的个数
+     */
+    private final int arity;
+
+    /**
+     * 当前的相等条件，每个元素是一个复合 key
+     */
+    private List<Object[]> pendingKeys;
+
+    /**
+     * 当前的谓词条件
+     */
+    private Object pendingCondition;
+
+    /**
+     * 已经设定的分支：条件为 List&lt;Object[]&gt; 或谓词
+     */
+    private final List<Object> conditions = new ArrayList<>();
+
+    private final List<Object> actions = new ArrayList<>();
+
+    SwitchCases(int arity) {
+        this.arity = arity;
+    }
+
+    void is(Object... parts) {
+        List<Object[]> keys = new ArrayList<>(1);
+        keys.add(parts);
+
+        pendingKeys = keys;
+        pendingCondition = null;
+    }
+
+    void isIn(Object[] values) {
+        Objects.requireNonNull(values);
+
+        List<Object[]> keys = new ArrayList<>(values.length);
+        for (Object value : values) {
+            keys.add(new Object[] { value });
+        }
+
+        pendingKeys = keys;
+        pendingCondition = null;
+    }
+
+    void when(Object condition) {
+        pendingCondition = Objects.requireNonNull(condition);
+        pendingKeys = null;
+    }
+
+    void then(Object action) {
+        Objects.requireNonNull(action);
+
+        if (pendingKeys != null) {
+            conditions.add(pendingKeys);
+        } else if (pendingCondition != null) {
+            conditions.add(pendingCondition);
+        } else {
+            throw new IllegalStateException("A condition must be set first");
+        }
+
+        actions.add(action);
+        pendingKeys = null;
+        pendingCondition = null;
+    }
+
+    /**
+     * 将收集的分支编译为若干段：每一段要么是一个 {@link KeyIndex}，要么是一个谓词及其动作
+     *
+     * @return 编译后的分支
+     */
+    @SuppressWarnings("unchecked")
+    Compiled compile() {
+        List<KeyIndex> indexes = new ArrayList<>();
+        List<Object> segmentConditions = new ArrayList<>();
+        List<Object> segmentActions = new ArrayList<>();
+
+        int size = conditions.size();
+        for (int i = 0; i < size; ) {
+            Object condition = conditions.get(i);
+
+            if (!(condition instanceof List)) {
+                indexes.add(null);
+                segmentConditions.add(condition);
+                segmentActions.add(actions.get(i++));
+                continue;
+            }
+
+            // 合并连续的相等条件
+            int end = i;
+            int expected = 0;
+            while (end < size && conditions.get(end) instanceof List) {
+                expected += ((List<Object[]>) conditions.get(end)).size();
+                end++;
+            }
+
+            KeyIndex index = new KeyIndex(arity, expected);
+            for (; i < end; i++) {
+                for (Object[] key : (List<Object[]>) conditions.get(i)) {
+                    // 同一个 key 以第一个分支为准
+                    index.putIfAbsent(key, actions.get(i));
+                }
+            }
+
+            indexes.add(index);
+            segmentConditions.add(null);
+            segmentActions.add(null);
+        }
+
+        return new Compiled(indexes.toArray(new KeyIndex[0]), segmentConditions.toArray(), segmentActions.toArray());
+    }
+
+    /**
+     * 将单输入的分支编译为决策树：相等条件转换为输入值上的条件，普通的 Predicate 被视为不透明的判断
+     *
+     * @return 决策树
+     */
+    @SuppressWarnings("unchecked")
+    DecisionTree compileTree() {
+        if (arity != 1) {
+            throw new IllegalStateException("Only single input cases can be compiled to a decision tree");
+        }
+
+        List<Condition<Object>> trees = new ArrayList<>(conditions.size());
+        for (Object condition : conditions) {
+            if (condition instanceof List) {
+                List<Object[]> keys = (List<Object[]>) condition;
+
+                Object[] values = new Object[keys.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = keys.get(i)[0];
+                }
+
+                trees.add(values.length == 1 ? DecisionTree.INPUT.eq(values[0]) : DecisionTree.INPUT.in(values));
+            } else if (condition instanceof Condition) {
+                trees.add((Condition<Object>) condition);
+            } else {
+                trees.add(Condition.of((Predicate<Object>) condition));
+            }
+        }
+
+        return DecisionTree.compile(trees, actions);
+    }
+
+    /**
+     * 编译后的分支，第 i 段的 {@code indexes[i]} 不为 null 时为相等条件，否则为谓词 {@code conditions[i]}
+     */
+    static final class Compiled {
+
+        final KeyIndex[] indexes;
+
+        final Object[] conditions;
+
+        final Object[] actions;
+
+        Compiled(KeyIndex[] indexes, Object[] conditions, Object[] actions) {
+            this.indexes = indexes;
+            this.conditions = conditions;
+            this.actions = actions;
+        }
+    }
+
+}
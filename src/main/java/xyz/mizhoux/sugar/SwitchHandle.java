@@ -0,0 +1,233 @@
+package xyz.mizhoux.sugar;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 持有一个不可变的定义，并支持在运行时原子地替换
+ * <p>
+ * 定义可以是 {@link CompiledSwitch}、{@link CompiledBiSwitch}、{@link CompiledTriSwitch} 或 {@link SwitchTable}。
+ * 替换时整体发布新的定义（写时复制），求值的线程不加锁、不阻塞，也不会看到构建到一半的定义。
+ * 每次替换都会产生一个新的版本号，被替换下来的版本可以等待其上正在进行的求值全部完成。
+ *
+ * @param <D> 定义的类型
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class SwitchHandle<D> {
+
+    /**
+     * 每个版本上求值计数的分段数
+     */
+    private static final int CELLS = cells(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 相邻两个计数之间的间隔，使每个计数独占一个缓存行
+     */
+    private static final int STRIDE = 16;
+
+    private final AtomicReference<Version<D>> current;
+
+    private SwitchHandle(D initial) {
+        this.current = new AtomicReference<>(new Version<>(1, initial));
+    }
+
+    /**
+     * 使用初始的定义创建 SwitchHandle
+     *
+     * @param initial 初始的定义
+     * @param <D>     定义的类型
+     * @return SwitchHandle 实例
+     */
+    public static <D> SwitchHandle<D> of(D initial) {
+        return new SwitchHandle<>(Objects.requireNonNull(initial));
+    }
+
+    /**
+     * 将持有 Function 的 SwitchHandle 视为一个 Function，每次求值都使用当时的版本
+     *
+     * @param handle 持有 Function 的 SwitchHandle，例如持有 CompiledSwitch
+     * @param <I>    输入类型
+     * @param <O>    输出类型
+     * @return 使用当前版本求值的 Function
+     */
+    public static <I, O> Function<I, O> asFunction(SwitchHandle<? extends Function<? super I, ? extends O>> handle) {
+        Objects.requireNonNull(handle);
+        return input -> handle.read(definition -> definition.apply(input));
+    }
+
+    /**
+     * 使用当前版本的定义进行求值，求值期间该版本被视为正在使用
+     *
+     * @param reader 使用定义进行的求值，例如 {@code s -> s.apply(input)}
+     * @param <R>    求值结果的类型
+     * @return 求值结果
+     */
+    public <R> R read(Function<? super D, ? extends R> reader) {
+        int cell = cell();
+
+        for (;;) {
+            Version<D> version = current.get();
+
+            version.inFlight.incrementAndGet(cell);
+            try {
+                // 登记之后版本没有被替换，替换方等待排空时一定能看到本次求值
+                if (current.get() == version) {
+                    return reader.apply(version.definition);
+                }
+            } finally {
+                version.inFlight.decrementAndGet(cell);
+            }
+        }
+    }
+
+    /**
+     * @return 当前版本
+     */
+    public Version<D> current() {
+        return current.get();
+    }
+
+    /**
+     * 使用新的定义替换当前的定义
+     *
+     * @param definition 新的定义
+     * @return 被替换下来的版本
+     */
+    public Version<D> swap(D definition) {
+        Objects.requireNonNull(definition);
+
+        for (;;) {
+            Version<D> previous = current.get();
+            if (current.compareAndSet(previous, new Version<>(previous.number + 1, definition))) {
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * 基于当前的定义生成新的定义并替换。并发替换时 updater 可能被调用多次，因此不应有副作用
+     *
+     * @param updater 由当前的定义生成新的定义
+     * @return 被替换下来的版本
+     */
+    public Version<D> update(UnaryOperator<D> updater) {
+        Objects.requireNonNull(updater);
+
+        for (;;) {
+            Version<D> previous = current.get();
+            D definition = Objects.requireNonNull(updater.apply(previous.definition));
+
+            if (current.compareAndSet(previous, new Version<>(previous.number + 1, definition))) {
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * @return 当前线程使用的计数下标，同一线程总是落在同一个分段上
+     */
+    @SuppressWarnings("deprecation")
+    private static int cell() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & (CELLS - 1)) * STRIDE;
+    }
+
+    private static int cells(int processors) {
+        int n = Integer.highestOneBit(Math.max(1, processors));
+        return Math.min(n < processors ? n << 1 : n, 64);
+    }
+
+    /**
+     * SwitchHandle 持有的某个版本的定义
+     *
+     * @param <D> 定义的类型
+     */
+    public static final class Version<D> {
+
+        /**
+         * 版本号，从 1 开始递增
+         */
+        private final long number;
+
+        private final D definition;
+
+        /**
+         * 正在该版本上进行的求值数，按线程分段计数以避免所有读线程争用同一个缓存行
+         */
+        private final AtomicIntegerArray inFlight = new AtomicIntegerArray(CELLS * STRIDE);
+
+        Version(long number, D definition) {
+            this.number = number;
+            this.definition = definition;
+        }
+
+        /**
+         * @return 版本号
+         */
+        public long number() {
+            return number;
+        }
+
+        /**
+         * @return 该版本的定义
+         */
+        public D definition() {
+            return definition;
+        }
+
+        /**
+         * @return 正在该版本上进行的求值数
+         */
+        public int inFlight() {
+            int sum = 0;
+            for (int i = 0; i < CELLS; i++) {
+                sum += inFlight.get(i * STRIDE);
+            }
+            return sum;
+        }
+
+        /**
+         * 等待该版本上正在进行的求值全部完成。版本被替换下来之后不会再有新的求值开始
+         *
+         * @param timeout 最长等待时间
+         * @param unit    时间单位
+         * @return 是否在超时前排空
+         * @throws InterruptedException 等待时被中断
+         */
+        public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            // 逐个等待每个分段归零：分段归零之后，其上新登记的求值都会发现版本已被替换
+            for (int i = 0, spins = 0; i < CELLS; ) {
+                if (inFlight.get(i * STRIDE) == 0) {
+                    i++;
+                    continue;
+                }
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+
+                // 求值通常很快结束，先让出 CPU，再逐步退避
+                if (spins++ < 100) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(Math.min(spins, 1000)));
+                }
+            }
+
+            return true;
+        }
+    }
+
+}
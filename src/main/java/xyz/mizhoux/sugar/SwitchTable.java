@@ -0,0 +1,495 @@
+package xyz.mizhoux.sugar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 从规则文件加载的大规模 Switch 表
+ * <p>
+ * 规则文件每行一条规则，格式为 {@code key,value,output}，空行和以 {@code #} 开头的行会被忽略：
+ * <ul>
+ *     <li>{@code value} 为空时，表示输入与 {@code key} 相等时输出 {@code output}</li>
+ *     <li>{@code value} 不为空时，表示输入位于闭区间 [{@code key}, {@code value}] 时输出 {@code output}，
+ *     区间的上下界均为 long 类型</li>
+ * </ul>
+ * 相等规则存放在开放寻址的哈希索引中，区间规则按下界排序后存放在基本类型数组中，
+ * 因此求值的时间复杂度分别为 O(1) 和 O(log n)。同一个 key 重复出现时，以第一条规则为准；区间之间不允许重叠。
+ * 每个字段首尾的空白都会被忽略，字段中不支持引号和转义。
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public final class SwitchTable<O> {
+
+    /**
+     * 哈希索引的最大装载因子
+     */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /**
+     * 去重后的输出值
+     */
+    private final Object[] outputs;
+
+    /**
+     * 相等规则的哈希索引：key 以及对应的输出下标
+     */
+    private final String[] keys;
+
+    private final int[] keyOutputs;
+
+    /**
+     * 去重后相等规则的条数
+     */
+    private final int keyCount;
+
+    /**
+     * 区间规则：按下界排序
+     */
+    private final long[] lows;
+
+    private final long[] highs;
+
+    private final int[] rangeOutputs;
+
+    /**
+     * 加载耗时（纳秒）
+     */
+    private final long loadNanos;
+
+    private SwitchTable(Loader loader, Object[] outputs, long startNanos) {
+        this.outputs = outputs;
+
+        int capacity = Integer.highestOneBit((int) Math.max(2, loader.keyCount / LOAD_FACTOR) - 1) << 1;
+        int distinct = 0;
+        this.keys = new String[capacity];
+        this.keyOutputs = new int[capacity];
+        for (int i = 0; i < loader.keyCount; i++) {
+            String key = loader.keys[i];
+            int slot = slot(key);
+            // 同一个 key 以第一条规则为准
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (keys[slot] == null) {
+                keys[slot] = key;
+                keyOutputs[slot] = loader.keyOutputs[i];
+                distinct++;
+            }
+        }
+        this.keyCount = distinct;
+
+        int rangeCount = loader.rangeCount;
+        int[] order = sortByLow(loader.lows, rangeCount);
+        this.lows = new long[rangeCount];
+        this.highs = new long[rangeCount];
+        this.rangeOutputs = new int[rangeCount];
+        for (int i = 0; i < rangeCount; i++) {
+            int j = order[i];
+            lows[i] = loader.lows[j];
+            highs[i] = loader.highs[j];
+            rangeOutputs[i] = loader.rangeOutputs[j];
+
+            if (i > 0 && lows[i] <= highs[i - 1]) {
+                throw new IllegalArgumentException(
+                    "Overlapping ranges [" + lows[i - 1] + ", " + highs[i - 1] + "] and [" + lows[i] + ", " + highs[i] + "]");
+            }
+        }
+
+        this.loadNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 以流的方式读取规则文件，输出值为字符串
+     *
+     * @param file 规则文件
+     * @return SwitchTable 实例
+     * @throws IOException 读取文件失败
+     */
+    public static SwitchTable<String> load(Path file) throws IOException {
+        return load(file, Function.identity());
+    }
+
+    /**
+     * 以流的方式读取规则文件
+     *
+     * @param file   规则文件
+     * @param parser 输出值的解析器，每个不同的输出只会被解析一次
+     * @param <O>    输出类型
+     * @return SwitchTable 实例
+     * @throws IOException 读取文件失败
+     */
+    public static <O> SwitchTable<O> load(Path file, Function<String, O> parser) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(parser);
+
+        long start = System.nanoTime();
+        Loader loader = new Loader();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                loader.lineNo++;
+
+                if (line.isEmpty() || line.charAt(0) == '#') { continue; }
+
+                int first = line.indexOf(',');
+                int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+                if (second < 0) {
+                    throw loader.malformed(line);
+                }
+
+                loader.accept(line.substring(0, first), line.substring(first + 1, second), line.substring(second + 1));
+            }
+        }
+
+        return new SwitchTable<>(loader, loader.parseOutputs(parser), start);
+    }
+
+    /**
+     * 以内存映射的方式读取规则文件，输出值为字符串
+     *
+     * @param file 规则文件
+     * @return SwitchTable 实例
+     * @throws IOException 读取文件失败
+     */
+    public static SwitchTable<String> map(Path file) throws IOException {
+        return map(file, Function.identity());
+    }
+
+    /**
+     * 以内存映射的方式读取规则文件，适用于较大的规则文件。文件超过 2GB 时退化为流式读取
+     *
+     * @param file   规则文件
+     * @param parser 输出值的解析器，每个不同的输出只会被解析一次
+     * @param <O>    输出类型
+     * @return SwitchTable 实例
+     * @throws IOException 读取文件失败
+     */
+    public static <O> SwitchTable<O> map(Path file, Function<String, O> parser) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(parser);
+
+        long start = System.nanoTime();
+        Loader loader = new Loader();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return load(file, parser);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            byte[] line = new byte[256];
+
+            while (buffer.hasRemaining()) {
+                int length = 0;
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') { break; }
+
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length << 1);
+                    }
+                    line[length++] = b;
+                }
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+
+                loader.lineNo++;
+                if (length == 0 || line[0] == '#') { continue; }
+
+                int first = indexOf(line, 0, length);
+                int second = first < 0 ? -1 : indexOf(line, first + 1, length);
+                if (second < 0) {
+                    throw loader.malformed(new String(line, 0, length, StandardCharsets.UTF_8));
+                }
+
+                loader.accept(new String(line, 0, first, StandardCharsets.UTF_8),
+                              new String(line, first + 1, second - first - 1, StandardCharsets.UTF_8),
+                              new String(line, second + 1, length - second - 1, StandardCharsets.UTF_8));
+            }
+        }
+
+        return new SwitchTable<>(loader, loader.parseOutputs(parser), start);
+    }
+
+    /**
+     * 对输入进行求值：先查找相等规则，未命中且输入为整数时再查找区间规则
+     *
+     * @param input 输入值
+     * @return 使用 Optional 包装的输出值
+     */
+    public Optional<O> obtain(String input) {
+        int index = indexOf(input);
+        return index < 0 ? Optional.empty() : Optional.ofNullable(output(index));
+    }
+
+    /**
+     * 对输入进行求值，没有规则被满足时返回指定的输出值
+     *
+     * @param input 输入值
+     * @param value 指定的输出值
+     * @return 规则的输出值或指定的输出值
+     */
+    public O elseGet(String input, O value) {
+        int index = indexOf(input);
+        return index < 0 ? value : output(index);
+    }
+
+    /**
+     * 在区间规则中对输入进行求值
+     *
+     * @param input 输入值
+     * @return 使用 Optional 包装的输出值
+     */
+    public Optional<O> obtain(long input) {
+        int index = rangeIndexOf(input);
+        return index < 0 ? Optional.empty() : Optional.ofNullable(output(index));
+    }
+
+    /**
+     * 在区间规则中对输入进行求值，没有规则被满足时返回指定的输出值
+     *
+     * @param input 输入值
+     * @param value 指定的输出值
+     * @return 规则的输出值或指定的输出值
+     */
+    public O elseGet(long input, O value) {
+        int index = rangeIndexOf(input);
+        return index < 0 ? value : output(index);
+    }
+
+    /**
+     * @return 规则的条数（重复的 key 只计算一次）
+     */
+    public int size() {
+        return keyCount + lows.length;
+    }
+
+    /**
+     * @return 加载规则文件并建立索引的耗时（纳秒）
+     */
+    public long loadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * 估算索引占用的堆内存，假设开启了压缩指针
+     *
+     * @return 估算的字节数
+     */
+    public long footprint() {
+        long bytes = arrayBytes(outputs.length, 4) + arrayBytes(keys.length, 4) + arrayBytes(keyOutputs.length, 4)
+                   + arrayBytes(lows.length, 8) + arrayBytes(highs.length, 8) + arrayBytes(rangeOutputs.length, 4);
+
+        for (String key : keys) {
+            if (key != null) {
+                // String 对象头 + 内部的 byte[]/char[]
+                bytes += 24 + arrayBytes(key.length(), 2);
+            }
+        }
+
+        return bytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private O output(int index) {
+        return (O) outputs[index];
+    }
+
+    private int indexOf(String input) {
+        if (input == null) { return -1; }
+
+        int slot = slot(input);
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (key.equals(input)) {
+                return keyOutputs[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+
+        if (lows.length == 0 || !isLong(input)) { return -1; }
+
+        try {
+            return rangeIndexOf(Long.parseLong(input));
+        } catch (NumberFormatException e) {
+            // 超出 long 的范围
+            return -1;
+        }
+    }
+
+    private int rangeIndexOf(long input) {
+        int low = 0;
+        int high = lows.length - 1;
+
+        // 查找最后一个下界不大于输入的区间
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (lows[mid] <= input) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high >= 0 && input <= highs[high] ? rangeOutputs[high] : -1;
+    }
+
+    private int slot(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    private static boolean isLong(String s) {
+        int length = s.length();
+        int i = length > 0 && s.charAt(0) == '-' ? 1 : 0;
+        if (i == length || length - i > 19) { return false; }
+
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') { return false; }
+        }
+
+        return true;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == ',') { return i; }
+        }
+        return -1;
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        // 数组对象头 16 字节，按 8 字节对齐
+        return (16L + (long) length * elementSize + 7) & ~7L;
+    }
+
+    /**
+     * 按区间下界对下标进行稳定排序
+     */
+    private static int[] sortByLow(long[] lows, int count) {
+        int[] order = new int[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+            if (i > 0 && lows[i] < lows[i - 1]) {
+                sorted = false;
+            }
+        }
+        // 规则文件通常已经有序
+        if (sorted) { return order; }
+
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width <<= 1) {
+            for (int left = 0; left < count; left += width << 1) {
+                int mid = Math.min(left + width, count);
+                int right = Math.min(left + (width << 1), count);
+                int i = left, j = mid, k = left;
+                while (i < mid && j < right) {
+                    buffer[k++] = lows[order[j]] < lows[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < mid) { buffer[k++] = order[i++]; }
+                while (j < right) { buffer[k++] = order[j++]; }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+
+        return order;
+    }
+
+    /**
+     * 加载过程中的临时状态
+     */
+    private static final class Loader {
+
+        int lineNo;
+
+        final Map<String, Integer> outputIndexes = new HashMap<>();
+
+        String[] keys = new String[1024];
+
+        int[] keyOutputs = new int[1024];
+
+        int keyCount;
+
+        long[] lows = new long[1024];
+
+        long[] highs = new long[1024];
+
+        int[] rangeOutputs = new int[1024];
+
+        int rangeCount;
+
+        void accept(String key, String value, String output) {
+            // 相等规则与区间规则一样忽略字段首尾的空白
+            key = key.trim();
+            value = value.trim();
+            output = output.trim();
+
+            Integer index = outputIndexes.get(output);
+            if (index == null) {
+                index = outputIndexes.size();
+                outputIndexes.put(output, index);
+            }
+
+            if (value.isEmpty()) {
+                if (keyCount == keys.length) {
+                    keys = Arrays.copyOf(keys, keyCount << 1);
+                    keyOutputs = Arrays.copyOf(keyOutputs, keyCount << 1);
+                }
+                keys[keyCount] = key;
+                keyOutputs[keyCount++] = index;
+                return;
+            }
+
+            long low, high;
+            try {
+                low = Long.parseLong(key);
+                high = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw malformed(key + ',' + value + ',' + output);
+            }
+            if (low > high) {
+                throw malformed(key + ',' + value + ',' + output);
+            }
+
+            if (rangeCount == lows.length) {
+                lows = Arrays.copyOf(lows, rangeCount << 1);
+                highs = Arrays.copyOf(highs, rangeCount << 1);
+                rangeOutputs = Arrays.copyOf(rangeOutputs, rangeCount << 1);
+            }
+            lows[rangeCount] = low;
+            highs[rangeCount] = high;
+            rangeOutputs[rangeCount++] = index;
+        }
+
+        Object[] parseOutputs(Function<String, ?> parser) {
+            Object[] outputs = new Object[outputIndexes.size()];
+            outputIndexes.forEach((output, index) -> outputs[index] = parser.apply(output));
+            return outputs;
+        }
+
+        IllegalArgumentException malformed(String line) {
+            return new IllegalArgumentException("Malformed rule at line " + lineNo + ": " + line);
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package xyz.mizhoux.sugar.function;
+
+/**
+ * TriFunction
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+@FunctionalInterface
+public interface TriFunction<T, U, V, R> {
+
+    R apply(T t, U u, V v);
+
+}
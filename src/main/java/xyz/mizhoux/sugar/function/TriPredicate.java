@@ -0,0 +1,14 @@
+package xyz.mizhoux.sugar.function;
+
+/**
+ * TriPredicate
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+@FunctionalInterface
+public interface TriPredicate<T, U, V> {
+
+    boolean test(T t, U u, V v);
+
+}
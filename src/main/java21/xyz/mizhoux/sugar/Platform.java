@@ -0,0 +1,26 @@
+package xyz.mizhoux.sugar;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * JDK 21 及以上的实现：阻塞调用运行在虚拟线程上
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+final class Platform {
+
+    private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("msugar-", 0).factory();
+
+    private Platform() {
+    }
+
+    /**
+     * @return 执行可能长时间阻塞的调用的 Executor，每个调用运行在新的虚拟线程上
+     */
+    static Executor blockingExecutor() {
+        return command -> VIRTUAL_THREADS.newThread(command).start();
+    }
+
+}
@@ -1,7 +1,24 @@
 package xyz.mizhoux.sugar;
 
 import org.junit.Test;
+import xyz.mizhoux.sugar.function.CheckedSupplier;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -65,6 +82,254 @@ public class AttemptTest {
         assertEquals(0, supplier.get().intValue());
     }
 
+    @Test
+    public void testMemoize() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Supplier<Integer> supplier = Attempt.memoize(() -> {
+            started.countDown();
+            release.await();
+            return calls.incrementAndGet();
+        }, Duration.ofMinutes(1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(supplier::get);
+            }
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> future : futures) {
+                assertEquals(1, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, supplier.get().intValue());
+    }
+
+    @Test
+    public void testMemoizeRace() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 2000; round++) {
+                AtomicInteger calls = new AtomicInteger();
+                Supplier<Integer> supplier = Attempt.memoize(calls::incrementAndGet, Duration.ofMinutes(1));
+
+                CyclicBarrier barrier = new CyclicBarrier(threads);
+                Future<?>[] futures = new Future<?>[threads];
+                for (int i = 0; i < threads; i++) {
+                    futures[i] = pool.submit(() -> {
+                        barrier.await();
+                        return supplier.get();
+                    });
+                }
+
+                for (Future<?> future : futures) {
+                    assertEquals(1, future.get(5, TimeUnit.SECONDS));
+                }
+                assertEquals(1, calls.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMemoizeRefreshAhead() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> supplier = new MemoizingSupplier<>(calls::incrementAndGet, 1000, 0, ex -> -1,
+                                                             Runnable::run, clock::get);
+
+        assertEquals(1, supplier.get().intValue());
+        clock.set(799);
+        assertEquals(1, supplier.get().intValue());
+        assertEquals(1, calls.get());
+
+        // 进入刷新窗口但尚未过期：返回旧值，同时触发刷新
+        clock.set(800);
+        assertEquals(1, supplier.get().intValue());
+        assertEquals(2, supplier.get().intValue());
+
+        // 过期后同步加载
+        clock.set(1800);
+        assertEquals(3, supplier.get().intValue());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testMemoizeFailure() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> supplier = Attempt.memoize(() -> {
+            calls.incrementAndGet();
+            return throwableSupply();
+        }, Duration.ofMinutes(1), Duration.ofMillis(100), ex -> 0);
+
+        assertEquals(0, supplier.get().intValue());
+        assertEquals(0, supplier.get().intValue());
+        assertEquals(1, calls.get());
+
+        Thread.sleep(150);
+        assertEquals(0, supplier.get().intValue());
+        assertEquals(2, calls.get());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMemoizeWithoutHandler() {
+        Attempt.memoize(this::throwableSupply, Duration.ofMinutes(1)).get();
+    }
+
+    @Test
+    public void testWithTimeout() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Supplier<String> supplier = Attempt.supply(Attempt.withTimeout(() -> {
+            try {
+                Thread.sleep(10_000);
+                return "slow";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }, Duration.ofMillis(50)), ex -> ex instanceof TimeoutException ? "timeout" : "error");
+
+        assertEquals("timeout", supplier.get());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        Function<Integer, Integer> mapper = Attempt.apply(Attempt.withTimeout((Integer i) -> i + 1, Duration.ofSeconds(5)),
+                                                          ex -> -1);
+        assertEquals(2, mapper.apply(1).intValue());
+    }
+
+    @Test
+    public void testWithTimeoutFailure() {
+        Supplier<Object> supplier = Attempt.supply(Attempt.withTimeout(() -> { throw new IOException("io"); },
+                                                                       Duration.ofSeconds(5)),
+                                                   ex -> ex);
+        assertTrue(supplier.get() instanceof IOException);
+
+        Function<Object, Object> mapper = Attempt.apply(Attempt.withDeadline(v -> v, Instant.now().minusSeconds(1)),
+                                                        ex -> ex);
+        assertTrue(mapper.apply("") instanceof TimeoutException);
+
+        // 线程池已满时拒绝调用
+        Supplier<Object> rejected = Attempt.supply(Attempt.withTimeout(() -> "ok", Duration.ofSeconds(5), command -> {
+            throw new RejectedExecutionException("full");
+        }), ex -> ex);
+        assertTrue(rejected.get() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void testNestedDeadline() {
+        assertFalse(Deadline.remaining().isPresent());
+
+        Supplier<Duration> supplier = Attempt.supply(Attempt.withDeadline(() -> {
+            Duration outer = Deadline.remaining().get();
+            assertTrue(outer.compareTo(Duration.ofMillis(500)) <= 0);
+
+            // 内层的时限更长，但仍然受外层的截止时间约束，并且直接在当前线程上执行
+            Thread worker = Thread.currentThread();
+            Duration inner = Attempt.withTimeout(() -> {
+                assertSame(worker, Thread.currentThread());
+                return Deadline.remaining().get();
+            }, Duration.ofMinutes(1)).supply();
+            assertTrue(inner.compareTo(outer) <= 0);
+
+            // 内层的时限更短时切换到新的线程，超时只中断内层的调用
+            Thread shorter = Attempt.withTimeout(Thread::currentThread, Duration.ofMillis(100)).supply();
+            assertNotSame(worker, shorter);
+            return inner;
+        }, Instant.now().plusMillis(500)));
+
+        assertTrue(supplier.get().compareTo(Duration.ofMillis(500)) <= 0);
+        assertFalse(Deadline.remaining().isPresent());
+        assertFalse(Deadline.isExpired());
+    }
+
+    @Test
+    public void testConcurrentTimeouts() throws Exception {
+        // 正常结束的调用不受线程数限制，时限更短的嵌套调用也不会被拒绝
+        Supplier<Object> supplier = Attempt.supply(Attempt.withTimeout(() -> {
+            Thread.sleep(50);
+            return Attempt.withTimeout(() -> {
+                Thread.sleep(50);
+                return "ok";
+            }, Duration.ofSeconds(1)).supply();
+        }, Duration.ofSeconds(2)), ex -> ex);
+
+        int callers = 40;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(callers);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    barrier.await();
+                    return supplier.get();
+                }));
+            }
+
+            for (Future<Object> future : futures) {
+                assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAbandonedLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newCachedThreadPool();
+        Executor executor = Deadline.limitAbandoned(pool, 2);
+
+        // 不响应中断的调用
+        CheckedSupplier<Object> stuck = () -> {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            return interrupted ? "interrupted" : "released";
+        };
+
+        try {
+            Supplier<Object> supplier = Attempt.supply(Attempt.withTimeout(stuck, Duration.ofMillis(20), executor),
+                                                       ex -> ex);
+            assertTrue(supplier.get() instanceof TimeoutException);
+            assertTrue(supplier.get() instanceof TimeoutException);
+            assertTrue(supplier.get() instanceof RejectedExecutionException);
+
+            // 泄漏的调用结束之后恢复
+            release.countDown();
+            Supplier<Object> fast = Attempt.supply(Attempt.withTimeout(() -> "ok", Duration.ofSeconds(5), executor),
+                                                   ex -> ex);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            Object result;
+            while ((result = fast.get()) instanceof RejectedExecutionException && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("ok", result);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
     private void throwableAccept(Object value) throws Exception {
         throw new Exception("throwableAccept");
     }
@@ -0,0 +1,185 @@
+package xyz.mizhoux.sugar;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * CompiledSwitchTest
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public class CompiledSwitchTest {
+
+    @Test
+    public void testCompiled() {
+        CompiledSwitch<Integer, String> names = Switch.define(Integer.class)
+                                                      .out(String.class)
+                                                      .is(0).thenGet("zero")
+                                                      .isIn(1, 2).thenApply(i -> i == 1 ? "one" : "two")
+                                                      .is(1).thenGet("shadowed")
+                                                      .when(i -> i != null && i < 0).thenGet("negative")
+                                                      .is(-1).thenGet("unreachable")
+                                                      .is(null).thenSupply(() -> "null")
+                                                      .elseApply(i -> "many");
+
+        assertEquals("zero", names.apply(0));
+        assertEquals("one", names.apply(1));
+        assertEquals("two", names.apply(2));
+        assertEquals("negative", names.apply(-1));
+        assertEquals("null", names.apply(null));
+        assertEquals("many", names.apply(3));
+
+        CompiledSwitch<String, Integer> noDefault = Switch.define(String.class)
+                                                          .out(Integer.class)
+                                                          .is("a").thenGet(1)
+                                                          .build();
+        assertEquals(1, noDefault.obtain("a").get().intValue());
+        assertFalse(noDefault.obtain("b").isPresent());
+    }
+
+    @Test
+    public void testTypeDispatch() {
+        CompiledSwitch<Object, String> types = types();
+
+        assertEquals("long", types.apply(1L));
+        assertEquals("integer", types.apply(1));
+        assertEquals("number", types.apply(1.0));
+        assertEquals("char-sequence", types.apply(new StringBuilder()));
+        assertEquals("string", types.apply("a"));
+        assertEquals("empty", types.apply(""));
+        assertEquals("serializable", types.apply(TimeUnit.SECONDS));
+        assertEquals("null", types.apply(null));
+        assertEquals("other", types.apply(new Object()));
+    }
+
+    @Test
+    public void testEnumDispatch() {
+        CompiledSwitch<TimeUnit, String> units = units();
+
+        assertEquals("small", units.apply(TimeUnit.NANOSECONDS));
+        assertEquals("small", units.apply(TimeUnit.MICROSECONDS));
+        assertEquals("second", units.apply(TimeUnit.SECONDS));
+        assertEquals("large", units.apply(TimeUnit.DAYS));
+        assertEquals("other", units.apply(TimeUnit.MILLISECONDS));
+        assertEquals("other", units.apply(null));
+
+        Condition.Field<Object, Object> self = Condition.field(x -> x);
+        CompiledSwitch<Object, String> mixed = Switch.define(Object.class)
+                                                     .out(String.class)
+                                                     .when(self.eq(TimeUnit.SECONDS)).thenGet("second")
+                                                     .elseGet("other");
+        assertEquals("second", mixed.apply(TimeUnit.SECONDS));
+        assertEquals("other", mixed.apply("SECONDS"));
+    }
+
+    /**
+     * 分派的耗时，使用 -Dbenchmark=true 运行
+     */
+    @Test
+    public void testDispatchBenchmark() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+
+        CompiledSwitch<Object, String> types = types();
+        CompiledSwitch<TimeUnit, String> units = units();
+
+        Object[] inputs = { 1L, 1, 1.0, "a", new StringBuilder(), TimeUnit.SECONDS, new Object() };
+        TimeUnit[] values = TimeUnit.values();
+
+        int rounds = 2_000_000;
+        long checksum = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                checksum += types.apply(inputs[i % inputs.length]).length();
+            }
+            long typeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                checksum += units.apply(values[i % values.length]).length();
+            }
+            long enumNanos = System.nanoTime() - start;
+
+            if (warmup == 1) {
+                System.out.printf("Dispatch (Java %s): type %.1f ns/op, enum %.1f ns/op%n",
+                                  System.getProperty("java.version"),
+                                  (double) typeNanos / rounds, (double) enumNanos / rounds);
+            }
+        }
+
+        assertTrue(checksum > 0);
+    }
+
+    private CompiledSwitch<Object, String> types() {
+        return Switch.define(Object.class)
+                     .out(String.class)
+                     .when(Condition.instanceOf(Long.class)).thenGet("long")
+                     .when(Condition.instanceOf(Integer.class)).thenGet("integer")
+                     .when(Condition.instanceOf(Number.class)).thenGet("number")
+                     .is("").thenGet("empty")
+                     .when(Condition.instanceOf(String.class)).thenGet("string")
+                     .when(Condition.instanceOf(CharSequence.class)).thenGet("char-sequence")
+                     .when(Condition.instanceOf(Serializable.class)).thenGet("serializable")
+                     .is(null).thenGet("null")
+                     .elseGet("other");
+    }
+
+    private CompiledSwitch<TimeUnit, String> units() {
+        return Switch.define(TimeUnit.class)
+                     .out(String.class)
+                     .isIn(TimeUnit.NANOSECONDS, TimeUnit.MICROSECONDS).thenGet("small")
+                     .is(TimeUnit.SECONDS).thenGet("second")
+                     .isIn(TimeUnit.HOURS, TimeUnit.DAYS, TimeUnit.SECONDS).thenGet("large")
+                     .elseGet("other");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWithoutCondition() {
+        Switch.define(Integer.class).thenGet("");
+    }
+
+    @Test
+    public void testCompiledBi() {
+        CompiledBiSwitch<String, Integer, String> prices = Switch.define(String.class, Integer.class)
+                                                                 .out(String.class)
+                                                                 .is("cn", 1).thenGet("cn-1")
+                                                                 .is("cn", 2).thenGet("cn-2")
+                                                                 .is("us", 1).thenApply((r, t) -> r + t)
+                                                                 .when((r, t) -> t != null && t > 5).thenGet("vip")
+                                                                 .is(null, null).thenGet("none")
+                                                                 .elseGet("default");
+
+        assertEquals("cn-1", prices.apply("cn", 1));
+        assertEquals("cn-2", prices.apply("cn", 2));
+        assertEquals("us1", prices.apply("us", 1));
+        assertEquals("vip", prices.apply("uk", 6));
+        assertEquals("none", prices.apply(null, null));
+        assertEquals("default", prices.apply("us", 2));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i > 5 ? "vip" : "default", prices.apply("jp", i));
+        }
+    }
+
+    @Test
+    public void testCompiledTri() {
+        CompiledTriSwitch<String, String, Boolean, Integer> routes = Switch.define(String.class, String.class, Boolean.class)
+                                                                           .out(Integer.class)
+                                                                           .is("GET", "/", false).thenGet(1)
+                                                                           .is("GET", "/", true).thenGet(2)
+                                                                           .when((m, p, s) -> p.startsWith("/api")).thenGet(3)
+                                                                           .build();
+
+        assertEquals(1, routes.apply("GET", "/", false).intValue());
+        assertEquals(2, routes.apply("GET", "/", true).intValue());
+        assertEquals(3, routes.apply("POST", "/api/x", false).intValue());
+        assertFalse(routes.obtain("POST", "/", false).isPresent());
+    }
+
+}
@@ -0,0 +1,241 @@
+package xyz.mizhoux.sugar;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * ConditionTest
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public class ConditionTest {
+
+    @Test
+    public void testPredicate() {
+        Condition.Field<String, Integer> length = Condition.field(String::length);
+        Condition.Field<String, Character> head = Condition.field(s -> s.isEmpty() ? null : s.charAt(0));
+
+        Condition<String> condition = length.between(2, 4).and(Condition.not(head.in('x', 'y')))
+                                                          .or(head.eq(null));
+
+        assertTrue(condition.test(""));
+        assertTrue(condition.test("abc"));
+        assertFalse(condition.test("xbc"));
+        assertFalse(condition.test("abcde"));
+
+        // 可以直接用在普通的 Switch 中
+        assertEquals("ok", Switch.in("ab").out(String.class).when(condition).thenGet("ok").elseGet("no"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRange() {
+        Condition.field(Function.<Integer>identity()).between(2, 1);
+    }
+
+    @Test
+    public void testExtractOnce() {
+        AtomicInteger typeCalls = new AtomicInteger();
+        AtomicInteger sizeCalls = new AtomicInteger();
+
+        Condition.Field<int[], Integer> type = Condition.field(x -> { typeCalls.incrementAndGet(); return x[0]; });
+        Condition.Field<int[], Integer> size = Condition.field(x -> { sizeCalls.incrementAndGet(); return x[1]; });
+
+        CompiledSwitch.Builder<int[], String> builder = Switch.define(int[].class).out(String.class);
+        for (int i = 0; i < 30; i++) {
+            builder.when(type.eq(i).and(size.between(0, 9))).thenGet("small-" + i)
+                   .when(type.eq(i).and(size.between(10, 99))).thenGet("large-" + i);
+        }
+        CompiledSwitch<int[], String> compiled = builder.when(type.in(100, 101)).thenGet("special").elseGet("none");
+
+        assertEquals("small-3", compiled.apply(new int[] { 3, 5 }));
+        assertEquals("large-29", compiled.apply(new int[] { 29, 10 }));
+        assertEquals("none", compiled.apply(new int[] { 29, 100 }));
+        assertEquals("special", compiled.apply(new int[] { 101, 100 }));
+        assertEquals("none", compiled.apply(new int[] { 31, 1 }));
+
+        assertEquals(5, typeCalls.get());
+        assertTrue(sizeCalls.get() <= 3);
+    }
+
+    @Test
+    public void testEquivalence() {
+        Condition.Field<int[], Integer> a = Condition.field(x -> x[0]);
+        Condition.Field<int[], Integer> b = Condition.field(x -> x[1] < 0 ? null : x[1]);
+
+        Condition<int[]>[] conditions = newArray(
+            a.eq(1).and(b.eq(2)),
+            a.between(0, 5).or(b.in(7, 8)),
+            Condition.not(a.between(3, 10)).and(b.between(-5, 5)),
+            Condition.of(x -> x[0] + x[1] == 9),
+            b.eq(null),
+            a.in(20, 21).and(Condition.of(x -> x[1] % 2 == 0)),
+            b.between(10, 12).or(a.eq(15))
+        );
+
+        CompiledSwitch.Builder<int[], Integer> builder = Switch.define(int[].class).out(Integer.class);
+        for (int i = 0; i < conditions.length; i++) {
+            builder.when(conditions[i]).thenGet(i);
+        }
+        CompiledSwitch<int[], Integer> compiled = builder.elseGet(-1);
+
+        Random random = new Random(42);
+        for (int n = 0; n < 10000; n++) {
+            int[] input = { random.nextInt(30) - 5, random.nextInt(30) - 8 };
+
+            int expected = -1;
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].test(input)) {
+                    expected = i;
+                    break;
+                }
+            }
+
+            assertEquals(expected, compiled.apply(input).intValue());
+        }
+    }
+
+    @Test
+    public void testGuardedField() {
+        // 类型判断之后才能提取子类的字段
+        Condition.Field<Object, String> breed = Condition.field(o -> ((Dog) o).breed);
+        Condition<Object> labrador = Condition.<Object>instanceOf(Dog.class).and(breed.eq("lab"));
+
+        CompiledSwitch<Object, String> animals = Switch.define(Object.class)
+                                                       .out(String.class)
+                                                       .when(labrador).thenGet("labrador")
+                                                       .when(Condition.<Object>instanceOf(Dog.class).and(breed.in("pug", "poodle")))
+                                                       .thenGet("small")
+                                                       .when(Condition.instanceOf(Animal.class)).thenGet("animal")
+                                                       .elseGet("other");
+
+        assertFalse(labrador.test(new Animal()));
+        assertEquals("animal", animals.apply(new Animal()));
+        assertEquals("labrador", animals.apply(new Dog("lab")));
+        assertEquals("small", animals.apply(new Dog("pug")));
+        assertEquals("animal", animals.apply(new Dog("husky")));
+
+        // 判空之后才能提取字段
+        Condition.Field<String, Integer> length = Condition.field(String::length);
+        Condition<String> three = Condition.<String>of(x -> x != null).and(length.eq(3));
+
+        CompiledSwitch<String, String> strings = Switch.define(String.class)
+                                                       .out(String.class)
+                                                       .when(three).thenGet("three")
+                                                       .when(Condition.<String>of(x -> x == null).or(length.eq(0))).thenGet("empty")
+                                                       .elseGet("other");
+
+        assertFalse(three.test(null));
+        assertEquals("empty", strings.apply(null));
+        assertEquals("empty", strings.apply(""));
+        assertEquals("three", strings.apply("abc"));
+        assertEquals("other", strings.apply("ab"));
+    }
+
+    @Test(timeout = 10_000)
+    @SuppressWarnings("unchecked")
+    public void testNodeLimit() {
+        int fields = 9;
+        AtomicInteger[] calls = new AtomicInteger[fields];
+        Condition.Field<int[], Integer>[] f = new Condition.Field[fields];
+        for (int k = 0; k < fields; k++) {
+            int index = k;
+            calls[k] = new AtomicInteger();
+            f[k] = Condition.field(x -> { calls[index].incrementAndGet(); return x[index]; });
+        }
+
+        // 每个分支都是 9 个字段的 or，完全展开时节点数随字段数指数增长
+        Condition<int[]>[] conditions = new Condition[30];
+        CompiledSwitch.Builder<int[], Integer> builder = Switch.define(int[].class).out(Integer.class);
+        for (int i = 0; i < conditions.length; i++) {
+            Condition<int[]> condition = f[0].eq(i);
+            for (int k = 1; k < fields; k++) {
+                condition = condition.or(f[k].eq(i));
+            }
+            conditions[i] = condition;
+            builder.when(condition).thenGet(i);
+        }
+        CompiledSwitch<int[], Integer> compiled = builder.elseGet(-1);
+
+        Random random = new Random(42);
+        for (int n = 0; n < 10000; n++) {
+            int[] input = new int[fields];
+            for (int k = 0; k < fields; k++) {
+                input[k] = random.nextInt(40);
+            }
+
+            int expected = -1;
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].test(input)) {
+                    expected = i;
+                    break;
+                }
+            }
+
+            for (AtomicInteger call : calls) {
+                call.set(0);
+            }
+            assertEquals(expected, compiled.apply(input).intValue());
+            for (AtomicInteger call : calls) {
+                assertTrue(call.get() <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void testCompareToInconsistentWithEquals() {
+        Condition.Field<BigDecimal, BigDecimal> value = Condition.field(Function.identity());
+
+        Condition<BigDecimal>[] conditions = newArray(
+            value.eq(new BigDecimal("1.0")),
+            value.in(new BigDecimal("2.00"), new BigDecimal("3")),
+            value.between(new BigDecimal("1.00"), new BigDecimal("2.0")),
+            value.eq(new BigDecimal("3.0"))
+        );
+
+        CompiledSwitch.Builder<BigDecimal, Integer> builder = Switch.define(BigDecimal.class).out(Integer.class);
+        for (int i = 0; i < conditions.length; i++) {
+            builder.when(conditions[i]).thenGet(i);
+        }
+        CompiledSwitch<BigDecimal, Integer> compiled = builder.elseGet(-1);
+
+        String[] inputs = { "1", "1.0", "1.00", "1.5", "2", "2.0", "2.00", "3", "3.0", "3.00", "4", "0.5" };
+        for (String text : inputs) {
+            BigDecimal input = new BigDecimal(text);
+
+            int expected = -1;
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].test(input)) {
+                    expected = i;
+                    break;
+                }
+            }
+
+            assertEquals(text, expected, compiled.apply(input).intValue());
+        }
+    }
+
+    private static class Animal {
+    }
+
+    private static final class Dog extends Animal {
+
+        final String breed;
+
+        Dog(String breed) {
+            this.breed = breed;
+        }
+    }
+
+    @SafeVarargs
+    private static <T> Condition<T>[] newArray(Condition<T>... conditions) {
+        return conditions;
+    }
+
+}
@@ -0,0 +1,141 @@
+package xyz.mizhoux.sugar;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * SwitchHandleTest
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public class SwitchHandleTest {
+
+    @Test
+    public void testSwap() {
+        SwitchHandle<CompiledSwitch<Integer, String>> handle = SwitchHandle.of(names("v1"));
+        Function<Integer, String> lookup = SwitchHandle.asFunction(handle);
+        assertEquals(1, handle.current().number());
+        assertEquals("v1-one", lookup.apply(1));
+
+        SwitchHandle.Version<CompiledSwitch<Integer, String>> previous = handle.swap(names("v2"));
+        assertEquals(1, previous.number());
+        assertEquals(2, handle.current().number());
+        assertEquals("v2-one", lookup.apply(1));
+
+        previous = handle.update(current -> names(current.apply(1).substring(0, 2) + "x"));
+        assertEquals(2, previous.number());
+        assertEquals(3, handle.current().number());
+        assertEquals("v2x-one", handle.read(s -> s.apply(1)));
+    }
+
+    @Test
+    public void testSwapBiSwitch() {
+        SwitchHandle<CompiledBiSwitch<String, Integer, String>> handle = SwitchHandle.of(
+            Switch.define(String.class, Integer.class)
+                  .out(String.class)
+                  .is("cn", 1).thenGet("asia")
+                  .elseGet("unknown"));
+        assertEquals("asia", handle.read(s -> s.apply("cn", 1)));
+
+        handle.swap(Switch.define(String.class, Integer.class)
+                          .out(String.class)
+                          .is("us", 1).thenGet("america")
+                          .elseGet("unknown"));
+        assertEquals("unknown", handle.read(s -> s.apply("cn", 1)));
+        assertEquals("america", handle.read(s -> s.apply("us", 1)));
+        assertEquals(0, handle.current().inFlight());
+    }
+
+    @Test
+    public void testDrain() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        SwitchHandle<CompiledSwitch<Integer, String>> handle = SwitchHandle.of(
+            Switch.define(Integer.class)
+                  .out(String.class)
+                  .is(0).thenSupply(() -> {
+                      entered.countDown();
+                      try {
+                          release.await();
+                      } catch (InterruptedException e) {
+                          Thread.currentThread().interrupt();
+                      }
+                      return "slow";
+                  })
+                  .elseGet("fast"));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = pool.submit(() -> handle.read(s -> s.apply(0)));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            SwitchHandle.Version<CompiledSwitch<Integer, String>> previous = handle.swap(names("v2"));
+            assertEquals(1, previous.inFlight());
+            assertFalse(previous.awaitDrained(50, TimeUnit.MILLISECONDS));
+
+            // 新的求值使用新的版本，不受旧版本影响
+            assertEquals("v2-one", handle.read(s -> s.apply(1)));
+
+            release.countDown();
+            assertTrue(previous.awaitDrained(5, TimeUnit.SECONDS));
+            assertEquals("slow", slow.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentSwap() throws Exception {
+        SwitchHandle<CompiledSwitch<Integer, String>> handle = SwitchHandle.of(names("v0"));
+        Function<Integer, String> lookup = SwitchHandle.asFunction(handle);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] readers = new Future<?>[4];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = pool.submit(() -> {
+                    while (running.get()) {
+                        String one = lookup.apply(1);
+                        String two = lookup.apply(2);
+                        assertTrue(one.endsWith("-one"));
+                        assertTrue(two.endsWith("-two"));
+                    }
+                });
+            }
+
+            for (int i = 1; i <= 1000; i++) {
+                assertTrue(handle.swap(names("v" + i)).awaitDrained(5, TimeUnit.SECONDS));
+            }
+
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1001, handle.current().number());
+    }
+
+    private CompiledSwitch<Integer, String> names(String prefix) {
+        return Switch.define(Integer.class)
+                     .out(String.class)
+                     .is(1).thenGet(prefix + "-one")
+                     .is(2).thenGet(prefix + "-two")
+                     .elseGet(prefix + "-many");
+    }
+
+}
@@ -0,0 +1,124 @@
+package xyz.mizhoux.sugar;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * SwitchTableTest
+ *
+ * @author 之叶
+ * @date   2026/10/19
+ */
+public class SwitchTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLoad() throws IOException {
+        Path file = write("# region rules",
+                          "cn,,asia",
+                          "us,,america",
+                          "cn,,duplicate",
+                          "",
+                          "100,199,silver",
+                          "0,99,bronze",
+                          "200,299,gold");
+
+        for (SwitchTable<String> table : Arrays.asList(SwitchTable.load(file), SwitchTable.map(file))) {
+            assertEquals(5, table.size());
+
+            assertEquals("asia", table.obtain("cn").orElse(null));
+            assertEquals("america", table.elseGet("us", "unknown"));
+            assertEquals("unknown", table.elseGet("uk", "unknown"));
+            assertEquals("unknown", table.elseGet(null, "unknown"));
+
+            assertEquals("bronze", table.obtain("0").orElse(null));
+            assertEquals("silver", table.obtain(150).orElse(null));
+            assertEquals("gold", table.elseGet(299, "none"));
+            assertEquals("none", table.elseGet(300, "none"));
+            assertEquals("none", table.elseGet(-1, "none"));
+            assertFalse(table.obtain("99999999999999999999").isPresent());
+        }
+    }
+
+    @Test
+    public void testParser() throws IOException {
+        Path file = write("a,,1", "b,,2", "10,20,3");
+
+        SwitchTable<Integer> table = SwitchTable.load(file, Integer::valueOf);
+        assertEquals(1, table.obtain("a").get().intValue());
+        assertEquals(3, table.elseGet(15, 0).intValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformed() throws IOException {
+        SwitchTable.load(write("a,,1", "b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlapping() throws IOException {
+        SwitchTable.map(write("0,10,a", "10,20,b"));
+    }
+
+    @Test
+    public void testWhitespace() throws IOException {
+        SwitchTable<String> table = SwitchTable.map(write("cn ,,asia", " us , ,america", " 0 , 9 , digit "));
+
+        assertEquals("asia", table.elseGet("cn", null));
+        assertEquals("america", table.elseGet("us", null));
+        assertEquals("digit", table.elseGet(5, null));
+        assertFalse(table.obtain("cn ").isPresent());
+    }
+
+    /**
+     * 百万行的加载耗时，使用 -Dbenchmark=true 运行
+     */
+    @Test
+    public void testMillionRows() throws IOException {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+
+        int rows = 1_000_000;
+        Path file = folder.newFile("million.csv").toPath();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows / 2; i++) {
+                writer.write("key" + i + ",,out" + (i % 1000));
+                writer.newLine();
+                writer.write(i * 10L + "," + (i * 10L + 9) + ",range" + (i % 1000));
+                writer.newLine();
+            }
+        }
+
+        SwitchTable<String> loaded = SwitchTable.load(file);
+        SwitchTable<String> mapped = SwitchTable.map(file);
+
+        for (SwitchTable<String> table : Arrays.asList(loaded, mapped)) {
+            assertEquals(rows, table.size());
+            assertEquals("out123", table.elseGet("key123123", null));
+            assertEquals("range456", table.elseGet(4_564_565L, null));
+        }
+
+        System.out.printf("SwitchTable with %d rows: load %d ms, map %d ms, footprint ~%d MB%n",
+                          rows, loaded.loadNanos() / 1_000_000, mapped.loadNanos() / 1_000_000,
+                          loaded.footprint() >> 20);
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+}
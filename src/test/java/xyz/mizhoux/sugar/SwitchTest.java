@@ -64,6 +64,36 @@ public class SwitchTest {
         assertTrue(Switch.in(null).is(null).thenGet("").obtain().isPresent());
     }
 
+    @Test
+    public void testMultiKey() {
+        assertEquals("cn-gold", price("cn", 1));
+        assertEquals("us-any", price("us", 2));
+        assertEquals("default", price("uk", 3));
+
+        assertEquals("GET /", route("GET", "/", false));
+        assertEquals("secure", route("POST", "/login", true));
+        assertEquals("other", route("POST", "/login", false));
+
+        assertFalse(Switch.in(1, 2).obtain().isPresent());
+        assertTrue(Switch.in(null, null).is(null, null).thenGet("").obtain().isPresent());
+    }
+
+    private String price(String region, int tier) {
+        return Switch.in(region, tier)
+                     .out(String.class)
+                     .is("cn", 1).thenGet("cn-gold")
+                     .when((r, t) -> "us".equals(r)).thenApply((r, t) -> r + "-any")
+                     .elseGet("default");
+    }
+
+    private String route(String method, String path, boolean secure) {
+        return Switch.in(method, path, secure)
+                     .out(String.class)
+                     .is("GET", "/", false).thenApply((m, p, s) -> m + " " + p)
+                     .when((m, p, s) -> s).thenSupply(() -> "secure")
+                     .elseGet("other");
+    }
+
     private int getStringType(String value) {
         return Switch.in(value)
                      .out(Integer.class)